@@ -0,0 +1,79 @@
+package com.example.apigateway.compression;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU cost of compressing a JSON response per encoding and level, using the same pooled direct
+ * buffers as the gateway. The compressed size for each combination is printed at the end of its
+ * trial, so time per operation can be weighed against bandwidth saved.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"GZIP", "BR", "ZSTD"})
+    public ContentEncoding encoding;
+
+    @Param({"1", "3", "6", "9"})
+    public int level;
+
+    @Param({"4096", "65536", "1048576"})
+    public int payloadSize;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    private byte[] payload;
+    private long compressedSize;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var json = new StringBuilder("{\"users\":[");
+        for (int i = 0; json.length() < payloadSize; i++) {
+            json.append("{\"id\":").append(i)
+                .append(",\"name\":\"User ").append(i)
+                .append("\",\"email\":\"user").append(i).append("@example.com\",\"active\":")
+                .append(i % 3 != 0).append("},");
+        }
+        payload = json.substring(0, payloadSize).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public long compress() {
+        long size = 0;
+        try (StreamingCompressor compressor = encoding.newCompressor(bufferFactory, level)) {
+            for (int offset = 0; offset < payload.length; offset += CHUNK_SIZE) {
+                int length = Math.min(CHUNK_SIZE, payload.length - offset);
+                DataBuffer chunk = bufferFactory.allocateBuffer(length).write(payload, offset, length);
+                size += drain(compressor.compress(chunk));
+            }
+            size += drain(compressor.finish());
+        }
+        compressedSize = size;
+        return size;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%n%s level %d: %d -> %d bytes (%.1f%% of original)%n",
+            encoding, level, payload.length, compressedSize, 100.0 * compressedSize / payload.length);
+    }
+
+    private static int drain(DataBuffer output) {
+        int size = output.readableByteCount();
+        DataBufferUtils.release(output);
+        return size;
+    }
+}
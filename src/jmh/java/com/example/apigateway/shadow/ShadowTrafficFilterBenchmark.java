@@ -0,0 +1,86 @@
+package com.example.apigateway.shadow;
+
+import com.example.apigateway.config.ShadowProperties;
+import com.example.apigateway.model.ServiceInstance;
+import com.example.apigateway.model.ServiceStatus;
+import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primary-path cost of {@link ShadowTrafficFilter}: a route without the filter, with the filter
+ * sampling nothing, and with every request mirrored. The stubbed shadow transport completes on the
+ * caller's thread, so {@code filterMirrored} is an upper bound on what mirroring adds.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShadowTrafficFilterBenchmark {
+
+    private static final GatewayFilterChain PRIMARY = exchange -> {
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return Mono.empty();
+    };
+
+    private ShadowTrafficFilter sampledOut;
+    private ShadowTrafficFilter mirrored;
+
+    @Setup
+    public void setUp() {
+        var registry = new InMemoryServiceRegistryRepository();
+        registry.register(new ServiceInstance("candidate", "instance-1", "http://localhost:9090",
+            ServiceStatus.UP, Instant.now()));
+
+        var webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK).build()))
+                .build();
+        var client = new ShadowClient(webClient, 1024, Duration.ofSeconds(1));
+        var meterRegistry = new SimpleMeterRegistry();
+
+        sampledOut = new ShadowTrafficFilter("candidate", 0.0, ShadowProperties.Route.SAFE_METHODS, registry, client,
+            new ShadowMetrics(meterRegistry, "primary-route", "candidate"));
+        mirrored = new ShadowTrafficFilter("candidate", 1.0, ShadowProperties.Route.SAFE_METHODS, registry, client,
+            new ShadowMetrics(meterRegistry, "primary-route", "candidate"));
+    }
+
+    @Benchmark
+    public Object withoutFilter() {
+        var exchange = newExchange();
+        PRIMARY.filter(exchange).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public Object filterNotSampled() {
+        var exchange = newExchange();
+        sampledOut.filter(exchange, PRIMARY).block();
+        return exchange;
+    }
+
+    @Benchmark
+    public Object filterMirrored() {
+        var exchange = newExchange();
+        mirrored.filter(exchange, PRIMARY).block();
+        return exchange;
+    }
+
+    private static MockServerWebExchange newExchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/users?page=1"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.apigateway.accesslog;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.RequestPath;
+
+/**
+ * A pre-allocated, mutable ring buffer slot. Producers only copy primitives and references to
+ * objects the exchange already holds into it, so recording a request never allocates strings.
+ * Fields are only valid while the slot is being drained.
+ */
+public final class AccessLogEntry {
+    // Sequence this slot was last published under; written last by the producer
+    volatile long sequence = -1;
+
+    long timestampMillis;
+    String routeId;
+    String instanceId;
+    HttpMethod method;
+    RequestPath path;
+    int status;
+    long bytes;
+    long upstreamNanos;
+    long totalNanos;
+
+    public long timestampMillis() {
+        return timestampMillis;
+    }
+
+    public String routeId() {
+        return routeId;
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public HttpMethod method() {
+        return method;
+    }
+
+    public RequestPath path() {
+        return path;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    public long upstreamNanos() {
+        return upstreamNanos;
+    }
+
+    public long totalNanos() {
+        return totalNanos;
+    }
+
+    void clear() {
+        routeId = null;
+        instanceId = null;
+        method = null;
+        path = null;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.apigateway.accesslog;
+
+import com.example.apigateway.startup.GatewayWarmup;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Records one fixed-schema entry per request into an {@link AccessLogRingBuffer}.
+ * <p>
+ * Sampling is decided once the response is complete: failed, 5xx and slow requests are always
+ * kept, everything else is kept with probability {@code sampleRate}. 4xx responses are sampled:
+ * they are client errors, and a scanner or retrying client could otherwise crowd server-side
+ * failures out of the buffer. Synthetic warm-up requests are not recorded. Nothing here formats
+ * text or touches the file system; {@link AccessLogWriter} does that on its own thread.
+ */
+public class AccessLogFilter implements GlobalFilter, Ordered {
+    static final String TIMING_ATTR = AccessLogFilter.class.getName() + ".timing";
+    private static final long NOT_SET = Long.MIN_VALUE;
+
+    private final AccessLogRingBuffer ringBuffer;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public AccessLogFilter(AccessLogRingBuffer ringBuffer, double sampleRate, Duration slowThreshold) {
+        this.ringBuffer = ringBuffer;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (GatewayWarmup.isWarmupRequest(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+        var timing = new Timing(System.nanoTime());
+        exchange.getAttributes().put(TIMING_ATTR, timing);
+
+        var response = new CountingResponse(exchange.getResponse(), timing);
+        response.beforeCommit(() -> {
+            timing.committedNanos = System.nanoTime();
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange.mutate().response(response).build())
+                .doFinally(signal -> record(exchange, timing, signal));
+    }
+
+    private void record(ServerWebExchange exchange, Timing timing, SignalType signal) {
+        long totalNanos = System.nanoTime() - timing.startNanos;
+        boolean failed = signal != SignalType.ON_COMPLETE;
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        int status = statusCode != null ? statusCode.value() : (failed ? 500 : 200);
+
+        if (!shouldKeep(status, totalNanos, failed)) {
+            return;
+        }
+
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        Response<ServiceInstance> chosen = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        long upstreamNanos = timing.upstreamStartNanos != NOT_SET && timing.committedNanos != NOT_SET
+                ? timing.committedNanos - timing.upstreamStartNanos
+                : -1;
+        ServerHttpRequest request = exchange.getRequest();
+
+        ringBuffer.tryPublish(
+            System.currentTimeMillis(),
+            route != null ? route.getId() : null,
+            chosen != null && chosen.hasServer() ? chosen.getServer().getInstanceId() : null,
+            request.getMethod(),
+            request.getPath(),
+            status,
+            timing.bytes,
+            upstreamNanos,
+            totalNanos
+        );
+    }
+
+    boolean shouldKeep(int status, long totalNanos, boolean failed) {
+        if (failed || status >= 500 || totalNanos >= slowThresholdNanos) {
+            return true;
+        }
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    static final class Timing {
+        final long startNanos;
+        volatile long upstreamStartNanos = NOT_SET;
+        volatile long committedNanos = NOT_SET;
+        volatile long bytes;
+
+        Timing(long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+
+    private static final class CountingResponse extends ServerHttpResponseDecorator {
+        private final Timing timing;
+
+        CountingResponse(ServerHttpResponse delegate, Timing timing) {
+            super(delegate);
+            this.timing = timing;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.<DataBuffer>from(body).doOnNext(this::count));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(chunk -> Flux.<DataBuffer>from(chunk).doOnNext(this::count)));
+        }
+
+        private void count(DataBuffer buffer) {
+            // Buffers for one response are written sequentially, so a plain read-modify-write is safe
+            timing.bytes += buffer.readableByteCount();
+        }
+    }
+
+    /**
+     * Marks the start of the upstream call. Runs right after the LoadBalancer has picked an
+     * instance, so upstream latency covers connect, request and time to response headers.
+     * Routes that never proxy, such as the {@code no://op} fallback, keep reporting -1.
+     */
+    public static class UpstreamTimingFilter implements GlobalFilter, Ordered {
+        @Override
+        public int getOrder() {
+            return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            Timing timing = exchange.getAttribute(TIMING_ATTR);
+            if (timing != null && isProxied(exchange)) {
+                timing.upstreamStartNanos = System.nanoTime();
+            }
+            return chain.filter(exchange);
+        }
+
+        // By this order the LoadBalancer has resolved lb:// to the chosen instance's URL
+        private static boolean isProxied(ServerWebExchange exchange) {
+            if (exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR) != null) {
+                return true;
+            }
+            URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            String scheme = requestUrl != null ? requestUrl.getScheme() : null;
+            return "http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.apigateway.accesslog;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.RequestPath;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring of {@link AccessLogEntry} slots.
+ * <p>
+ * Producers claim a sequence with a CAS, fill the slot in place and publish it by writing the
+ * slot's sequence. A full buffer drops the record instead of waiting, so event-loop threads never
+ * block or spin on the writer.
+ */
+public class AccessLogRingBuffer {
+    private final AccessLogEntry[] slots;
+    private final int mask;
+    private final AtomicLong producerSequence = new AtomicLong();
+    private final AtomicLong consumerSequence = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    public AccessLogRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity);
+        if (capacity < requestedCapacity) {
+            capacity <<= 1;
+        }
+        this.slots = new AccessLogEntry[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AccessLogEntry();
+        }
+    }
+
+    public boolean tryPublish(long timestampMillis, String routeId, String instanceId, HttpMethod method,
+                              RequestPath path, int status, long bytes, long upstreamNanos, long totalNanos) {
+        long sequence;
+        do {
+            sequence = producerSequence.get();
+            if (sequence - consumerSequence.get() >= slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!producerSequence.compareAndSet(sequence, sequence + 1));
+
+        AccessLogEntry entry = slots[(int) (sequence & mask)];
+        entry.timestampMillis = timestampMillis;
+        entry.routeId = routeId;
+        entry.instanceId = instanceId;
+        entry.method = method;
+        entry.path = path;
+        entry.status = status;
+        entry.bytes = bytes;
+        entry.upstreamNanos = upstreamNanos;
+        entry.totalNanos = totalNanos;
+        entry.sequence = sequence;
+        return true;
+    }
+
+    /**
+     * Hands up to {@code maxEntries} published entries to the consumer in order and releases
+     * their slots afterwards. Must only be called from a single thread.
+     */
+    public int drain(Consumer<AccessLogEntry> consumer, int maxEntries) {
+        long sequence = consumerSequence.get();
+        int drained = 0;
+        try {
+            while (drained < maxEntries) {
+                AccessLogEntry entry = slots[(int) (sequence & mask)];
+                if (entry.sequence != sequence) {
+                    break;
+                }
+                try {
+                    consumer.accept(entry);
+                } finally {
+                    entry.clear();
+                    sequence++;
+                    drained++;
+                }
+            }
+        } finally {
+            consumerSequence.set(sequence);
+        }
+        return drained;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+}
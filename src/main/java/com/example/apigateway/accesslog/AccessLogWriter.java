@@ -0,0 +1,214 @@
+package com.example.apigateway.accesslog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Drains the {@link AccessLogRingBuffer} on a dedicated thread and appends one JSON object per
+ * line to the access log file through a {@link FileChannel}. Records are encoded into a reusable
+ * direct buffer and written once per batch.
+ */
+public class AccessLogWriter implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(AccessLogWriter.class);
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    // Worst case UTF-8 expansion per char, used to decide when to flush ahead of encoding
+    private static final int MAX_BYTES_PER_CHAR = 3;
+
+    private final AccessLogRingBuffer ringBuffer;
+    private final Path file;
+    private final int batchSize;
+    private final long idleParkNanos;
+
+    private final StringBuilder line = new StringBuilder(256);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final Consumer<AccessLogEntry> appender = this::append;
+
+    private FileChannel channel;
+    private Thread thread;
+    private volatile boolean running;
+
+    public AccessLogWriter(AccessLogRingBuffer ringBuffer, Path file, int batchSize, Duration flushInterval) {
+        this.ringBuffer = ringBuffer;
+        this.file = file;
+        this.batchSize = batchSize;
+        this.idleParkNanos = flushInterval.toNanos();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (thread != null && thread.isAlive()) {
+            // The previous writer still owns the channel until it finishes flushing
+            log.warn("Access log writer is still flushing; not restarting");
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open access log " + file, e);
+        }
+        running = true;
+        thread = Thread.ofPlatform()
+                .name("access-log-writer")
+                .daemon(true)
+                .start(this::runLoop);
+        log.info("Writing access log to {}", file.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Access log writer still flushing after 5s; the file is closed once it finishes");
+            return;
+        }
+        log.info("Access log closed ({} records dropped)", ringBuffer.droppedCount());
+    }
+
+    /**
+     * Stops after the web server, which stops in a lower phase than graceful shutdown, so requests
+     * completed while the server drains are still written.
+     */
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runLoop() {
+        while (running) {
+            if (drainBatch() == 0) {
+                LockSupport.parkNanos(this, idleParkNanos);
+            }
+        }
+        // Flush whatever was recorded before shutdown; the channel belongs to this thread, so it is
+        // only closed once the last write has finished
+        while (drainBatch() > 0) {
+            // keep draining
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close access log: {}", e.toString());
+        }
+    }
+
+    private int drainBatch() {
+        int drained = 0;
+        try {
+            drained = ringBuffer.drain(appender, batchSize);
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Failed to write access log batch: {}", e.toString());
+            writeBuffer.clear();
+        }
+        return drained;
+    }
+
+    private void append(AccessLogEntry entry) {
+        line.setLength(0);
+        line.append("{\"ts\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(entry.timestampMillis()), line);
+        line.append("\",\"route\":");
+        appendString(entry.routeId());
+        line.append(",\"instance\":");
+        appendString(entry.instanceId());
+        line.append(",\"method\":");
+        appendString(entry.method() != null ? entry.method().name() : null);
+        line.append(",\"path\":");
+        appendString(entry.path() != null ? entry.path().value() : null);
+        line.append(",\"status\":").append(entry.status())
+            .append(",\"bytes\":").append(entry.bytes())
+            .append(",\"upstream_us\":").append(entry.upstreamNanos() < 0 ? -1 : entry.upstreamNanos() / 1_000)
+            .append(",\"total_us\":").append(entry.totalNanos() / 1_000)
+            .append("}\n");
+
+        if (writeBuffer.remaining() < line.length() * MAX_BYTES_PER_CHAR) {
+            flush();
+        }
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(line), writeBuffer, true);
+    }
+
+    private void appendString(String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+
+    private void flush() {
+        if (writeBuffer.position() == 0) {
+            return;
+        }
+        writeBuffer.flip();
+        try {
+            while (writeBuffer.hasRemaining()) {
+                channel.write(writeBuffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeBuffer.clear();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.apigateway.compression;
+
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Brotli stream backed by brotli4j. The encoder holds back output until its window fills, so
+ * small chunks often compress to an empty buffer and everything is emitted by {@link #finish()}.
+ */
+class BrotliCompressor implements StreamingCompressor {
+    private static final int OUTPUT_CHUNK = 8 * 1024;
+
+    private final BufferSink sink;
+    private final BrotliOutputStream brotli;
+    private byte[] scratch;
+    private boolean closed;
+
+    BrotliCompressor(DataBufferFactory bufferFactory, int level) {
+        this.sink = new BufferSink(bufferFactory, OUTPUT_CHUNK);
+        try {
+            this.brotli = new BrotliOutputStream(sink, new Encoder.Parameters().setQuality(level));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public DataBuffer compress(DataBuffer input) {
+        try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                write(buffers.next());
+            }
+            return sink.take();
+        } catch (IOException e) {
+            sink.discard();
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(input);
+        }
+    }
+
+    @Override
+    public DataBuffer finish() {
+        try {
+            brotli.close();
+            closed = true;
+            return sink.take();
+        } catch (IOException e) {
+            sink.discard();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                brotli.close();
+            } catch (IOException e) {
+                // Nothing left to report to
+            }
+        }
+        sink.discard();
+    }
+
+    private void write(ByteBuffer source) throws IOException {
+        if (source.hasArray()) {
+            brotli.write(source.array(), source.arrayOffset() + source.position(), source.remaining());
+            return;
+        }
+        if (scratch == null) {
+            scratch = new byte[OUTPUT_CHUNK];
+        }
+        while (source.hasRemaining()) {
+            int length = Math.min(scratch.length, source.remaining());
+            source.get(scratch, 0, length);
+            brotli.write(scratch, 0, length);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.apigateway.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.OutputStream;
+
+/**
+ * Destination for stream-based native encoders: collects their output into one growing pooled
+ * buffer per compress call, which is handed over with {@link #take()}.
+ */
+final class BufferSink extends OutputStream {
+    private final DataBufferFactory bufferFactory;
+    private final int chunkSize;
+    private DataBuffer current;
+
+    BufferSink(DataBufferFactory bufferFactory, int chunkSize) {
+        this.bufferFactory = bufferFactory;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void write(int b) {
+        buffer().write((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        buffer().write(bytes, offset, length);
+    }
+
+    DataBuffer take() {
+        DataBuffer taken = current != null ? current : bufferFactory.allocateBuffer(0);
+        current = null;
+        return taken;
+    }
+
+    void discard() {
+        if (current != null) {
+            DataBufferUtils.release(current);
+            current = null;
+        }
+    }
+
+    private DataBuffer buffer() {
+        if (current == null) {
+            current = bufferFactory.allocateBuffer(chunkSize);
+        }
+        return current;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.apigateway.compression;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compresses a route's response bodies at the gateway.
+ * <p>
+ * The encoding is negotiated from {@code Accept-Encoding} before the request is forwarded, and
+ * {@code Accept-Encoding} is removed from the upstream request so backends answer uncompressed.
+ * Whether to compress is decided when the body is written, from the upstream status,
+ * {@code Content-Type} and {@code Content-Length}. Responses of unknown length are compressed.
+ * <p>
+ * Compressed responses carry {@code Vary: Accept-Encoding} and a weakened ETag so HTTP caches
+ * keep each encoded variant separately and serve them pre-compressed.
+ */
+public class CompressionFilter implements GatewayFilter {
+    private final List<ContentEncoding> encodings;
+    private final Map<ContentEncoding, Integer> levels;
+    private final long minSize;
+    private final List<MediaType> mediaTypes;
+
+    CompressionFilter(List<ContentEncoding> encodings, Map<ContentEncoding, Integer> levels,
+                      long minSize, List<MediaType> mediaTypes) {
+        this.encodings = List.copyOf(encodings);
+        this.levels = Map.copyOf(levels);
+        this.minSize = minSize;
+        this.mediaTypes = List.copyOf(mediaTypes);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() == HttpMethod.HEAD || request.getHeaders().containsKey(HttpHeaders.RANGE)) {
+            return chain.filter(exchange);
+        }
+        ContentEncoding encoding = ContentEncoding.negotiate(
+            request.getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING), encodings);
+        if (encoding == null) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest upstreamRequest = request.mutate()
+                .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING))
+                .build();
+        ServerHttpResponse response = new CompressingResponse(exchange.getResponse(), encoding);
+        return chain.filter(exchange.mutate().request(upstreamRequest).response(response).build());
+    }
+
+    boolean shouldCompress(HttpStatusCode status, HttpHeaders headers) {
+        if (status != null && (!status.is2xxSuccessful()
+                || status.value() == HttpStatus.NO_CONTENT.value()
+                || status.value() == HttpStatus.PARTIAL_CONTENT.value())) {
+            return false;
+        }
+        String existing = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (existing != null && !existing.equalsIgnoreCase("identity")) {
+            return false;
+        }
+        long contentLength = headers.getContentLength();
+        if (contentLength >= 0 && contentLength < minSize) {
+            return false;
+        }
+        MediaType contentType;
+        try {
+            contentType = headers.getContentType();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (contentType == null) {
+            return false;
+        }
+        for (MediaType allowed : mediaTypes) {
+            if (allowed.isCompatibleWith(contentType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class CompressingResponse extends ServerHttpResponseDecorator {
+        private final ContentEncoding encoding;
+
+        CompressingResponse(ServerHttpResponse delegate, ContentEncoding encoding) {
+            super(delegate);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            if (!shouldCompress(getStatusCode(), headers)) {
+                return super.writeWith(body);
+            }
+
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, encoding.token());
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+
+            StreamingCompressor compressor = encoding.newCompressor(bufferFactory(), levels.get(encoding));
+            Flux<DataBuffer> compressed = Flux.<DataBuffer>from(body)
+                    .map(compressor::compress)
+                    .concatWith(Mono.fromCallable(compressor::finish))
+                    .filter(CompressingResponse::releaseIfEmpty)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doFinally(signal -> compressor.close());
+            return super.writeWith(compressed);
+        }
+
+        private static boolean releaseIfEmpty(DataBuffer buffer) {
+            if (buffer.readableByteCount() > 0) {
+                return true;
+            }
+            DataBufferUtils.release(buffer);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.apigateway.compression;
+
+import com.example.apigateway.config.CompressionProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.http.MediaType;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Creates the per-route {@link CompressionFilter} from the global {@code gateway.compression}
+ * settings and any overrides under {@code gateway.compression.routes}.
+ */
+public class CompressionFilterFactory {
+    private static final Logger log = LoggerFactory.getLogger(CompressionFilterFactory.class);
+
+    private final CompressionProperties properties;
+    private final List<ContentEncoding> encodings;
+    private final List<MediaType> mediaTypes;
+
+    public CompressionFilterFactory(CompressionProperties properties) {
+        this.properties = properties;
+        this.encodings = properties.encodings().stream().filter(CompressionFilterFactory::isAvailable).toList();
+        this.mediaTypes = MediaType.parseMediaTypes(properties.mimeTypes());
+    }
+
+    public Optional<GatewayFilter> forService(String serviceName) {
+        CompressionProperties.Route route = properties.routes().get(serviceName);
+        boolean enabled = route != null && route.enabled() != null ? route.enabled() : properties.enabled();
+        if (!enabled || encodings.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<ContentEncoding, Integer> levels = new EnumMap<>(ContentEncoding.class);
+        levels.put(ContentEncoding.GZIP, route != null && route.gzipLevel() != null
+                ? route.gzipLevel() : properties.gzipLevel());
+        levels.put(ContentEncoding.ZSTD, route != null && route.zstdLevel() != null
+                ? route.zstdLevel() : properties.zstdLevel());
+        levels.put(ContentEncoding.BR, route != null && route.brotliLevel() != null
+                ? route.brotliLevel() : properties.brotliLevel());
+
+        // Must run before NettyWriteResponseFilter, which writes the body to the response of the
+        // exchange it receives; ordered later, the compressing decorator would never be used
+        var filter = new CompressionFilter(encodings, levels, properties.minSize().toBytes(), mediaTypes);
+        return Optional.of(new OrderedGatewayFilter(filter, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1));
+    }
+
+    // A missing native library only costs that encoding; clients fall back to the next one they accept
+    private static boolean isAvailable(ContentEncoding encoding) {
+        if (encoding.isAvailable()) {
+            return true;
+        }
+        log.warn("Not offering {} compression: no native encoder for this platform", encoding.token());
+        return false;
+    }
+}
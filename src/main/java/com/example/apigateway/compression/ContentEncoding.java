@@ -0,0 +1,105 @@
+package com.example.apigateway.compression;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Encodings the gateway can produce, identified by their {@code Content-Encoding} token.
+ */
+public enum ContentEncoding {
+    ZSTD("zstd") {
+        @Override
+        public StreamingCompressor newCompressor(DataBufferFactory bufferFactory, int level) {
+            return new ZstdCompressor(bufferFactory, level);
+        }
+    },
+    BR("br") {
+        @Override
+        public StreamingCompressor newCompressor(DataBufferFactory bufferFactory, int level) {
+            return new BrotliCompressor(bufferFactory, level);
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return Brotli4jLoader.isAvailable();
+        }
+    },
+    GZIP("gzip") {
+        @Override
+        public StreamingCompressor newCompressor(DataBufferFactory bufferFactory, int level) {
+            return new GzipCompressor(bufferFactory, level);
+        }
+    };
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public abstract StreamingCompressor newCompressor(DataBufferFactory bufferFactory, int level);
+
+    /**
+     * Whether the encoder can run on this platform; brotli4j ships its native library per OS and
+     * architecture and cannot load it anywhere else.
+     */
+    public boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Picks the first encoding in server preference order that the {@code Accept-Encoding}
+     * header allows, or {@code null} when none is acceptable.
+     */
+    public static ContentEncoding negotiate(String acceptEncoding, List<ContentEncoding> preference) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return null;
+        }
+        for (ContentEncoding candidate : preference) {
+            if (accepts(acceptEncoding, candidate.token)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    // An explicit token wins over "*"; either is refused with q=0
+    private static boolean accepts(String acceptEncoding, String token) {
+        Boolean wildcard = null;
+        for (String part : acceptEncoding.split(",")) {
+            String[] fields = part.split(";");
+            String coding = fields[0].trim().toLowerCase(Locale.ROOT);
+            boolean acceptable = qualityOf(fields) > 0;
+            if (coding.equals(token)) {
+                return acceptable;
+            }
+            if (coding.equals("*")) {
+                wildcard = acceptable;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double qualityOf(String[] fields) {
+        for (int i = 1; i < fields.length; i++) {
+            String parameter = fields[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
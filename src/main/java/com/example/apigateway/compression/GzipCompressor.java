@@ -0,0 +1,109 @@
+package com.example.apigateway.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip framing around a raw {@link Deflater}. Input and output go through the buffers'
+ * {@link ByteBuffer} views, so pooled direct buffers are compressed without copying to the heap.
+ */
+class GzipCompressor implements StreamingCompressor {
+    private static final int OUTPUT_CHUNK = 8 * 1024;
+    private static final byte[] HEADER = {
+        0x1f, (byte) 0x8b, // magic
+        Deflater.DEFLATED,  // compression method
+        0,                  // flags
+        0, 0, 0, 0,         // modification time
+        0,                  // extra flags
+        (byte) 0xff         // OS unknown
+    };
+
+    private final DataBufferFactory bufferFactory;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private boolean headerWritten;
+    private boolean closed;
+
+    GzipCompressor(DataBufferFactory bufferFactory, int level) {
+        this.bufferFactory = bufferFactory;
+        this.deflater = new Deflater(level, true);
+    }
+
+    @Override
+    public DataBuffer compress(DataBuffer input) {
+        DataBuffer output = newOutput();
+        try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                ByteBuffer source = buffers.next();
+                crc.update(source.duplicate());
+                deflater.setInput(source);
+                while (!deflater.needsInput()) {
+                    deflateInto(output, Deflater.NO_FLUSH);
+                }
+            }
+            return output;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(output);
+            throw e;
+        } finally {
+            DataBufferUtils.release(input);
+        }
+    }
+
+    @Override
+    public DataBuffer finish() {
+        DataBuffer output = newOutput();
+        try {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflateInto(output, Deflater.NO_FLUSH);
+            }
+            writeIntLittleEndian(output, (int) crc.getValue());
+            writeIntLittleEndian(output, (int) deflater.getBytesRead());
+            return output;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(output);
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            deflater.end();
+        }
+    }
+
+    private DataBuffer newOutput() {
+        DataBuffer output = bufferFactory.allocateBuffer(OUTPUT_CHUNK);
+        if (!headerWritten) {
+            output.write(HEADER);
+            headerWritten = true;
+        }
+        return output;
+    }
+
+    private void deflateInto(DataBuffer output, int flushMode) {
+        if (output.writableByteCount() == 0) {
+            output.ensureWritable(OUTPUT_CHUNK);
+        }
+        int written;
+        try (DataBuffer.ByteBufferIterator targets = output.writableByteBuffers()) {
+            written = deflater.deflate(targets.next(), flushMode);
+        }
+        output.writePosition(output.writePosition() + written);
+    }
+
+    private static void writeIntLittleEndian(DataBuffer output, int value) {
+        output.write((byte) value);
+        output.write((byte) (value >>> 8));
+        output.write((byte) (value >>> 16));
+        output.write((byte) (value >>> 24));
+    }
+}
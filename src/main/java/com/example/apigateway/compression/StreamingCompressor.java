@@ -0,0 +1,26 @@
+package com.example.apigateway.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+/**
+ * Stateful compressor for one response body. Calls are made sequentially by the body publisher.
+ */
+public interface StreamingCompressor extends AutoCloseable {
+
+    /**
+     * Compresses and releases {@code input}. The returned buffer may be empty when the
+     * compressor is still accumulating input.
+     */
+    DataBuffer compress(DataBuffer input);
+
+    /**
+     * Flushes remaining output and writes the stream trailer.
+     */
+    DataBuffer finish();
+
+    /**
+     * Frees native resources; safe to call more than once and after a failure.
+     */
+    @Override
+    void close();
+}
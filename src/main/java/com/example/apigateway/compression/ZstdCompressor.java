@@ -0,0 +1,87 @@
+package com.example.apigateway.compression;
+
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Zstandard stream backed by zstd-jni. Compressed frames are appended to buffers allocated from
+ * the response's buffer factory; direct input is staged through a small reusable array.
+ */
+class ZstdCompressor implements StreamingCompressor {
+    private static final int OUTPUT_CHUNK = 8 * 1024;
+
+    private final BufferSink sink;
+    private final ZstdOutputStreamNoFinalizer zstd;
+    private byte[] scratch;
+    private boolean closed;
+
+    ZstdCompressor(DataBufferFactory bufferFactory, int level) {
+        this.sink = new BufferSink(bufferFactory, OUTPUT_CHUNK);
+        try {
+            this.zstd = new ZstdOutputStreamNoFinalizer(sink, level);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public DataBuffer compress(DataBuffer input) {
+        try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                write(buffers.next());
+            }
+            return sink.take();
+        } catch (IOException e) {
+            sink.discard();
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(input);
+        }
+    }
+
+    @Override
+    public DataBuffer finish() {
+        try {
+            zstd.close();
+            closed = true;
+            return sink.take();
+        } catch (IOException e) {
+            sink.discard();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                zstd.close();
+            } catch (IOException e) {
+                // Nothing left to report to
+            }
+        }
+        sink.discard();
+    }
+
+    private void write(ByteBuffer source) throws IOException {
+        if (source.hasArray()) {
+            zstd.write(source.array(), source.arrayOffset() + source.position(), source.remaining());
+            return;
+        }
+        if (scratch == null) {
+            scratch = new byte[OUTPUT_CHUNK];
+        }
+        while (source.hasRemaining()) {
+            int length = Math.min(scratch.length, source.remaining());
+            source.get(scratch, 0, length);
+            zstd.write(scratch, 0, length);
+        }
+    }
+}
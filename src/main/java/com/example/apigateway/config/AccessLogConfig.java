@@ -0,0 +1,43 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.accesslog.AccessLogFilter;
+import com.example.apigateway.accesslog.AccessLogRingBuffer;
+import com.example.apigateway.accesslog.AccessLogWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "gateway.access-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogConfig {
+
+    @Bean
+    public AccessLogRingBuffer accessLogRingBuffer(AccessLogProperties properties) {
+        return new AccessLogRingBuffer(properties.bufferSize());
+    }
+
+    // Read from the buffer's own counter when scraped, so the request path never touches the registry
+    @Bean
+    public MeterBinder accessLogMetrics(AccessLogRingBuffer ringBuffer) {
+        return registry -> FunctionCounter.builder("gateway.access-log.dropped", ringBuffer, AccessLogRingBuffer::droppedCount)
+                .description("Access log entries dropped because the ring buffer was full")
+                .register(registry);
+    }
+
+    @Bean
+    public AccessLogWriter accessLogWriter(AccessLogRingBuffer ringBuffer, AccessLogProperties properties) {
+        return new AccessLogWriter(ringBuffer, properties.file(), properties.batchSize(), properties.flushInterval());
+    }
+
+    @Bean
+    public AccessLogFilter accessLogFilter(AccessLogRingBuffer ringBuffer, AccessLogProperties properties) {
+        return new AccessLogFilter(ringBuffer, properties.sampleRate(), properties.slowThreshold());
+    }
+
+    @Bean
+    public AccessLogFilter.UpstreamTimingFilter upstreamTimingFilter() {
+        return new AccessLogFilter.UpstreamTimingFilter();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.example.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.access-log")
+public record AccessLogProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    @DefaultValue("logs/access.log")
+    Path file,
+
+    // Ring buffer slots, rounded up to a power of two; records are dropped when full
+    @DefaultValue("8192")
+    int bufferSize,
+
+    // Maximum records drained and written per batch
+    @DefaultValue("512")
+    int batchSize,
+
+    // How long the writer sleeps when the buffer is empty
+    @DefaultValue("200ms")
+    Duration flushInterval,
+
+    // Fraction of fast 2xx-4xx requests to keep; failures, 5xx and slow requests are always kept
+    @DefaultValue("0.1")
+    double sampleRate,
+
+    @DefaultValue("1s")
+    Duration slowThreshold
+) {}
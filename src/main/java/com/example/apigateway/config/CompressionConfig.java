@@ -0,0 +1,14 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.compression.CompressionFilterFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CompressionConfig {
+
+    @Bean
+    public CompressionFilterFactory compressionFilterFactory(CompressionProperties properties) {
+        return new CompressionFilterFactory(properties);
+    }
+}
\ No newline at end of file
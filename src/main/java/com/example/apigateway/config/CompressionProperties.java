@@ -0,0 +1,51 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.compression.ContentEncoding;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "gateway.compression")
+public record CompressionProperties(
+    @DefaultValue("false")
+    boolean enabled,
+
+    // Server preference order, negotiated against the client's Accept-Encoding
+    @DefaultValue({"zstd", "br", "gzip"})
+    List<ContentEncoding> encodings,
+
+    // Responses with a smaller Content-Length are passed through untouched
+    @DefaultValue("1KB")
+    DataSize minSize,
+
+    @DefaultValue({"application/json", "application/*+json", "application/xml", "application/javascript",
+        "text/html", "text/plain", "text/css", "text/xml"})
+    List<String> mimeTypes,
+
+    @DefaultValue("6")
+    int gzipLevel,
+
+    @DefaultValue("3")
+    int zstdLevel,
+
+    // Brotli quality 0-11; above 5 it costs far more CPU than it saves on dynamic responses
+    @DefaultValue("4")
+    int brotliLevel,
+
+    // Keyed by service name; unset values fall back to the global settings
+    Map<String, Route> routes
+) {
+    public CompressionProperties {
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+    }
+
+    public record Route(
+        Boolean enabled,
+        Integer gzipLevel,
+        Integer zstdLevel,
+        Integer brotliLevel
+    ) {}
+}
@@ -1,6 +1,8 @@
 package com.example.apigateway.config;
 
+import com.example.apigateway.compression.CompressionFilterFactory;
 import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import com.example.apigateway.shadow.ShadowTrafficFilterFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.gateway.route.RouteLocator;
@@ -15,9 +17,20 @@ import java.util.stream.Collectors;
 public class GatewayConfig {
     private static final Logger log = LoggerFactory.getLogger(GatewayConfig.class);
 
+    // Routes are rebuilt from the current registry whenever the CachingRouteLocator refreshes, which
+    // the registry triggers with a HeartbeatEvent on every change, so services registered at
+    // runtime get their route and its filters too
     @Bean
-    public RouteLocator dynamicRoutes(RouteLocatorBuilder builder, InMemoryServiceRegistryRepository registry) {
-        log.info("Building dynamic routes using LoadBalancer...");
+    public RouteLocator dynamicRoutes(RouteLocatorBuilder builder, InMemoryServiceRegistryRepository registry,
+                                      ShadowTrafficFilterFactory shadowFilters,
+                                      CompressionFilterFactory compressionFilters) {
+        return () -> buildRoutes(builder, registry, shadowFilters, compressionFilters).getRoutes();
+    }
+
+    private RouteLocator buildRoutes(RouteLocatorBuilder builder, InMemoryServiceRegistryRepository registry,
+                                     ShadowTrafficFilterFactory shadowFilters,
+                                     CompressionFilterFactory compressionFilters) {
+        log.debug("Building dynamic routes using LoadBalancer...");
         var routes = builder.routes();
 
         // Get distinct service names from registry
@@ -27,12 +40,18 @@ public class GatewayConfig {
 
         // Create a LoadBalancer route for each service
         serviceNames.forEach(serviceName -> {
-            log.info("Defining LoadBalanced route for service: {}", serviceName);
+            log.debug("Defining LoadBalanced route for service: {}", serviceName);
             routes.route(serviceName + "-route",
                 r -> r.path("/gateway/" + serviceName + "/**")
-                    .filters(f -> f.rewritePath(
-                        "/gateway/" + serviceName + "/(?<remaining>.*)",
-                        "/${remaining}"))
+                    .filters(f -> {
+                        f.rewritePath(
+                            "/gateway/" + serviceName + "/(?<remaining>.*)",
+                            "/${remaining}");
+                        // Added after the rewrite so mirrors carry the downstream path
+                        shadowFilters.forService(serviceName).ifPresent(f::filter);
+                        compressionFilters.forService(serviceName).ifPresent(f::filter);
+                        return f;
+                    })
                     .uri("lb://" + serviceName));
         });
 
@@ -42,7 +61,7 @@ public class GatewayConfig {
                 .filters(f -> f.setStatus(404))
                 .uri("no://op"));
 
-        log.info("Finished defining dynamic routes");
+        log.debug("Finished defining {} dynamic route(s)", serviceNames.size());
         return routes.build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import com.example.apigateway.shadow.ShadowClient;
+import com.example.apigateway.shadow.ShadowTrafficFilterFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+@Configuration
+public class ShadowConfig {
+
+    // Mirror traffic gets its own pool and event loops so a slow shadow target
+    // cannot exhaust connections or I/O threads used by primary traffic
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shadowConnectionProvider(ShadowProperties properties) {
+        return ConnectionProvider.builder("gateway-shadow")
+                .maxConnections(properties.maxConnections())
+                .pendingAcquireTimeout(properties.timeout())
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public LoopResources shadowLoopResources(ShadowProperties properties) {
+        return LoopResources.create("gateway-shadow", properties.ioThreads(), true);
+    }
+
+    @Bean
+    public ShadowClient shadowClient(ConnectionProvider shadowConnectionProvider,
+                                     LoopResources shadowLoopResources,
+                                     ShadowProperties properties) {
+        HttpClient httpClient = HttpClient.create(shadowConnectionProvider)
+                .runOn(shadowLoopResources)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.timeout().toMillis())
+                .responseTimeout(properties.timeout());
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        return new ShadowClient(webClient, properties.maxConnections(), properties.timeout());
+    }
+
+    @Bean
+    public ShadowTrafficFilterFactory shadowTrafficFilterFactory(ShadowProperties properties,
+                                                                 InMemoryServiceRegistryRepository registry,
+                                                                 ShadowClient shadowClient,
+                                                                 MeterRegistry meterRegistry) {
+        return new ShadowTrafficFilterFactory(properties, registry, shadowClient, meterRegistry);
+    }
+}
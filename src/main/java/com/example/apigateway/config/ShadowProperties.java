@@ -0,0 +1,46 @@
+package com.example.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+@ConfigurationProperties(prefix = "gateway.shadow")
+public record ShadowProperties(
+    // Keyed by the primary service name, e.g. gateway.shadow.routes.service-a.target=service-a-v2
+    Map<String, Route> routes,
+
+    // Upper bound on concurrent mirror requests; further mirrors are dropped, never queued
+    @DefaultValue("32")
+    int maxConnections,
+
+    // Event-loop threads dedicated to mirror traffic
+    @DefaultValue("1")
+    int ioThreads,
+
+    @DefaultValue("2s")
+    Duration timeout
+) {
+    public ShadowProperties {
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+    }
+
+    public record Route(
+        String target,
+
+        @DefaultValue("0.01")
+        double sampleRate,
+
+        // Methods that are mirrored; defaults to the safe ones so side effects never run twice
+        Set<HttpMethod> methods
+    ) {
+        public static final Set<HttpMethod> SAFE_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+        public Route {
+            methods = methods == null || methods.isEmpty() ? SAFE_METHODS : Set.copyOf(methods);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.apigateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "gateway.warmup")
+public record WarmupProperties(
+    @DefaultValue("true")
+    boolean enabled,
+
+    // Number of synthetic requests sent through the proxy path per service
+    @DefaultValue("2")
+    int syntheticRequests,
+
+    // Downstream path appended to /gateway/{serviceName} for synthetic requests
+    @DefaultValue("/")
+    String syntheticPath,
+
+    // Upper bound for each individual warm-up step
+    @DefaultValue("5s")
+    Duration timeout
+) {}
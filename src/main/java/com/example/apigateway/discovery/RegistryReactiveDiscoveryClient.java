@@ -0,0 +1,109 @@
+package com.example.apigateway.discovery;
+
+import com.example.apigateway.model.ServiceStatus;
+import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Spring Cloud discovery client backed by {@link InMemoryServiceRegistryRepository}.
+ * <p>
+ * Only {@code UP} instances are exposed. Converted instances are cached per registry revision,
+ * keyed by both the registered and the lower-cased service name so lookups from
+ * {@code lower-case-service-id} routes resolve without allocating.
+ */
+@Component
+public class RegistryReactiveDiscoveryClient implements ReactiveDiscoveryClient {
+    private static final Logger log = LoggerFactory.getLogger(RegistryReactiveDiscoveryClient.class);
+
+    private final InMemoryServiceRegistryRepository registry;
+    private volatile Views views = new Views(-1, Map.of(), List.of());
+
+    public RegistryReactiveDiscoveryClient(InMemoryServiceRegistryRepository registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String description() {
+        return "In-memory service registry discovery client";
+    }
+
+    @Override
+    public Flux<ServiceInstance> getInstances(String serviceId) {
+        return Flux.defer(() -> Flux.fromIterable(views().instances().getOrDefault(serviceId, List.of())));
+    }
+
+    @Override
+    public Flux<String> getServices() {
+        return Flux.defer(() -> Flux.fromIterable(views().services()));
+    }
+
+    private Views views() {
+        long revision = registry.revision();
+        Views current = views;
+        if (current.revision() == revision) {
+            return current;
+        }
+        // Racing rebuilds produce equivalent views, so last writer wins
+        Views rebuilt = Views.build(revision, registry);
+        views = rebuilt;
+        return rebuilt;
+    }
+
+    private record Views(long revision, Map<String, List<ServiceInstance>> instances, List<String> services) {
+
+        static Views build(long revision, InMemoryServiceRegistryRepository registry) {
+            Map<String, List<ServiceInstance>> instances = new HashMap<>();
+            for (String serviceName : registry.getServiceNames()) {
+                List<ServiceInstance> converted = new ArrayList<>();
+                for (var instance : registry.getInstancesByService(serviceName)) {
+                    if (instance.status() != ServiceStatus.UP) {
+                        continue;
+                    }
+                    ServiceInstance serviceInstance = toServiceInstance(instance);
+                    if (serviceInstance != null) {
+                        converted.add(serviceInstance);
+                    }
+                }
+                List<ServiceInstance> immutable = List.copyOf(converted);
+                instances.put(serviceName, immutable);
+                instances.putIfAbsent(serviceName.toLowerCase(Locale.ROOT), immutable);
+            }
+            return new Views(revision, Map.copyOf(instances), registry.getServiceNames());
+        }
+
+        // One malformed registration must not take every lookup down with it
+        private static ServiceInstance toServiceInstance(com.example.apigateway.model.ServiceInstance instance) {
+            URI uri;
+            try {
+                uri = URI.create(instance.baseUrl());
+            } catch (IllegalArgumentException e) {
+                uri = null;
+            }
+            if (uri == null || uri.getHost() == null || uri.getScheme() == null) {
+                log.warn("Skipping {}/{}: unusable base URL {}",
+                    instance.serviceName(), instance.instanceId(), instance.baseUrl());
+                return null;
+            }
+            return new DefaultServiceInstance(
+                instance.instanceId(),
+                instance.serviceName(),
+                uri.getHost(),
+                uri.getPort(),
+                uri.getScheme().equalsIgnoreCase("https")
+            );
+        }
+    }
+}
@@ -4,18 +4,33 @@ import com.example.apigateway.model.ServiceInstance;
 import com.example.apigateway.model.ServiceStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.stereotype.Component;
 
+import java.net.URI;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.stream.Collectors;
 
 @Component
-public class InMemoryServiceRegistryRepository {
+public class InMemoryServiceRegistryRepository implements ApplicationEventPublisherAware {
     private static final Logger log = LoggerFactory.getLogger(InMemoryServiceRegistryRepository.class);
-    
-    private final ConcurrentMap<String, Map<String, ServiceInstance>> registry = new ConcurrentHashMap<>();
+
+    // Source of truth, only touched while holding the lock
+    private final Map<String, Map<String, ServiceInstance>> registry = new LinkedHashMap<>();
+    private final Object lock = new Object();
+
+    // Bumped on every mutation; read paths rebuild the indexes when it no longer matches
+    private volatile long revision;
+    private volatile Indexes indexes = Indexes.EMPTY;
+
+    // Absent when constructed outside a Spring context, e.g. in tests
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
 
     public void register(ServiceInstance instance) {
         // Ensure new instances are registered with UP status
@@ -27,75 +42,187 @@ public class InMemoryServiceRegistryRepository {
             instance.registrationTimestamp()
         );
 
-        registry.computeIfAbsent(registeredInstance.serviceName(),
-                k -> Collections.synchronizedMap(new LinkedHashMap<>()))
-                .put(registeredInstance.instanceId(), registeredInstance);
-        log.info("Registered: {}/{} at {} with status {}", 
+        long changed;
+        synchronized (lock) {
+            registry.computeIfAbsent(registeredInstance.serviceName(), k -> new LinkedHashMap<>())
+                    .put(registeredInstance.instanceId(), registeredInstance);
+            changed = ++revision;
+        }
+        publishHeartbeat(changed);
+        log.info("Registered: {}/{} at {} with status {}",
             registeredInstance.serviceName(), registeredInstance.instanceId(), registeredInstance.baseUrl(), registeredInstance.status());
     }
 
     public boolean updateStatus(String serviceName, String instanceId, ServiceStatus newStatus) {
-        Map<String, ServiceInstance> instances = registry.get(serviceName);
-        if (instances != null) {
-            synchronized (instances) {
-                ServiceInstance currentInstance = instances.get(instanceId);
-                if (currentInstance != null) {
-                    ServiceInstance updatedInstance = new ServiceInstance(
-                        currentInstance.serviceName(),
-                        currentInstance.instanceId(),
-                        currentInstance.baseUrl(),
-                        newStatus,
-                        currentInstance.registrationTimestamp()
-                    );
-                    instances.put(instanceId, updatedInstance);
-                    log.info("Updated status for {}/{} to {}", serviceName, instanceId, newStatus);
-                    return true;
-                }
+        long changed;
+        synchronized (lock) {
+            Map<String, ServiceInstance> instances = registry.get(serviceName);
+            ServiceInstance currentInstance = instances != null ? instances.get(instanceId) : null;
+            if (currentInstance != null) {
+                ServiceInstance updatedInstance = new ServiceInstance(
+                    currentInstance.serviceName(),
+                    currentInstance.instanceId(),
+                    currentInstance.baseUrl(),
+                    newStatus,
+                    currentInstance.registrationTimestamp()
+                );
+                instances.put(instanceId, updatedInstance);
+                changed = ++revision;
+            } else {
+                changed = -1;
             }
         }
-        log.warn("Failed to update status for non-existent instance: {}/{}", serviceName, instanceId);
-        return false;
+        if (changed < 0) {
+            log.warn("Failed to update status for non-existent instance: {}/{}", serviceName, instanceId);
+            return false;
+        }
+        publishHeartbeat(changed);
+        log.info("Updated status for {}/{} to {}", serviceName, instanceId, newStatus);
+        return true;
     }
 
     public List<ServiceInstance> getUpInstancesByService(String serviceName) {
-        return registry.getOrDefault(serviceName, Collections.emptyMap())
-                .values().stream()
-                .filter(instance -> instance.status() == ServiceStatus.UP)
-                .toList();
+        return indexes().upByService().getOrDefault(serviceName, List.of());
     }
 
     public boolean deregister(String serviceName, String instanceId) {
-        var serviceMap = registry.get(serviceName);
-        if (serviceMap == null || !serviceMap.containsKey(instanceId)) {
-            return false;
-        }
-
-        serviceMap.remove(instanceId);
-        if (serviceMap.isEmpty()) {
-            registry.remove(serviceName);
+        long changed;
+        synchronized (lock) {
+            var serviceMap = registry.get(serviceName);
+            if (serviceMap == null || serviceMap.remove(instanceId) == null) {
+                return false;
+            }
+            if (serviceMap.isEmpty()) {
+                registry.remove(serviceName);
+            }
+            changed = ++revision;
         }
+        publishHeartbeat(changed);
 
         log.info("Deregistered: {}/{}", serviceName, instanceId);
         return true;
     }
 
     public Collection<ServiceInstance> getAllInstances() {
-        return registry.values().stream()
-                .flatMap(map -> map.values().stream())
-                .collect(Collectors.toList());
+        return indexes().all();
     }
 
     public Collection<ServiceInstance> getInstancesByService(String serviceName) {
-        return registry.getOrDefault(
-                serviceName,
-                Collections.synchronizedMap(new LinkedHashMap<>())
-            ).values();
+        return indexes().byService().getOrDefault(serviceName, List.of());
+    }
+
+    public List<ServiceInstance> getInstancesByStatus(ServiceStatus status) {
+        return indexes().byStatus().getOrDefault(status, List.of());
+    }
+
+    public List<ServiceInstance> getInstancesByHost(String host) {
+        return indexes().byHost().getOrDefault(host, List.of());
+    }
+
+    public List<String> getServiceNames() {
+        return indexes().serviceNames();
     }
 
     public ServiceInstance getInstance(String serviceName, String instanceId) {
-        return registry.getOrDefault(
-                serviceName,
-                Collections.synchronizedMap(new LinkedHashMap<>())
-            ).get(instanceId);
+        var instances = indexes().byServiceAndId().get(serviceName);
+        return instances != null ? instances.get(instanceId) : null;
+    }
+
+    /**
+     * Registry revision the current views were built from. Callers caching derived views can
+     * compare it to decide when to rebuild.
+     */
+    public long revision() {
+        return revision;
+    }
+
+    // The discovery route locator only rebuilds its routes on heartbeats; published outside the
+    // lock since listeners read the registry back
+    private void publishHeartbeat(long changedRevision) {
+        ApplicationEventPublisher publisher = eventPublisher;
+        if (publisher != null) {
+            publisher.publishEvent(new HeartbeatEvent(this, changedRevision));
+        }
+    }
+
+    private Indexes indexes() {
+        Indexes current = indexes;
+        if (current.revision() == revision) {
+            return current;
+        }
+        synchronized (lock) {
+            if (indexes.revision() != revision) {
+                indexes = Indexes.build(revision, registry);
+            }
+            return indexes;
+        }
+    }
+
+    /**
+     * Immutable lookup views over one registry revision. Lookups are plain map reads on
+     * pre-built lists, so neither hits nor misses allocate.
+     */
+    private record Indexes(
+        long revision,
+        List<ServiceInstance> all,
+        List<String> serviceNames,
+        Map<String, List<ServiceInstance>> byService,
+        Map<String, List<ServiceInstance>> upByService,
+        Map<String, Map<String, ServiceInstance>> byServiceAndId,
+        Map<ServiceStatus, List<ServiceInstance>> byStatus,
+        Map<String, List<ServiceInstance>> byHost
+    ) {
+        static final Indexes EMPTY = new Indexes(0, List.of(), List.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+
+        static Indexes build(long revision, Map<String, Map<String, ServiceInstance>> registry) {
+            List<ServiceInstance> all = new ArrayList<>();
+            Map<String, List<ServiceInstance>> byService = new HashMap<>();
+            Map<String, List<ServiceInstance>> upByService = new HashMap<>();
+            Map<String, Map<String, ServiceInstance>> byServiceAndId = new HashMap<>();
+            Map<ServiceStatus, List<ServiceInstance>> byStatus = new EnumMap<>(ServiceStatus.class);
+            Map<String, List<ServiceInstance>> byHost = new HashMap<>();
+
+            registry.forEach((serviceName, instances) -> {
+                var serviceInstances = List.copyOf(instances.values());
+                all.addAll(serviceInstances);
+                byService.put(serviceName, serviceInstances);
+                byServiceAndId.put(serviceName, Map.copyOf(instances));
+                upByService.put(serviceName, serviceInstances.stream()
+                        .filter(instance -> instance.status() == ServiceStatus.UP)
+                        .toList());
+                for (ServiceInstance instance : serviceInstances) {
+                    byStatus.computeIfAbsent(instance.status(), k -> new ArrayList<>()).add(instance);
+                    String host = hostOf(instance);
+                    if (host != null) {
+                        byHost.computeIfAbsent(host, k -> new ArrayList<>()).add(instance);
+                    }
+                }
+            });
+
+            return new Indexes(
+                revision,
+                List.copyOf(all),
+                List.copyOf(registry.keySet()),
+                Map.copyOf(byService),
+                Map.copyOf(upByService),
+                Map.copyOf(byServiceAndId),
+                copyOfLists(byStatus),
+                copyOfLists(byHost)
+            );
+        }
+
+        private static <K> Map<K, List<ServiceInstance>> copyOfLists(Map<K, List<ServiceInstance>> source) {
+            Map<K, List<ServiceInstance>> copy = new HashMap<>();
+            source.forEach((key, list) -> copy.put(key, List.copyOf(list)));
+            return Map.copyOf(copy);
+        }
+
+        private static String hostOf(ServiceInstance instance) {
+            try {
+                return URI.create(instance.baseUrl()).getHost();
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.example.apigateway.shadow;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Fire-and-forget sender for mirrored requests.
+ * <p>
+ * A fixed number of permits caps concurrent mirrors. When the shadow target is slow and all
+ * permits are taken the mirror is dropped immediately, so nothing ever queues behind it.
+ */
+public class ShadowClient {
+    public static final int FAILED = -1;
+
+    private final WebClient webClient;
+    private final Semaphore permits;
+    private final Duration timeout;
+
+    public ShadowClient(WebClient webClient, int maxInFlight, Duration timeout) {
+        this.webClient = webClient;
+        this.permits = new Semaphore(maxInFlight);
+        this.timeout = timeout;
+    }
+
+    @FunctionalInterface
+    public interface Completion {
+        // status is FAILED when the mirror errored or timed out
+        void completed(int status, long elapsedNanos);
+    }
+
+    public boolean trySend(HttpMethod method, URI uri, HttpHeaders headers, Completion completion) {
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            webClient.method(method)
+                    .uri(uri)
+                    .headers(target -> target.addAll(headers))
+                    .exchangeToMono(response -> response.releaseBody()
+                            .thenReturn(response.statusCode().value()))
+                    .timeout(timeout)
+                    .onErrorReturn(FAILED)
+                    .defaultIfEmpty(FAILED)
+                    .doFinally(signal -> permits.release())
+                    .subscribe(status -> completion.completed(status, System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            // Thrown while assembling, before doFinally could take ownership of the permit
+            permits.release();
+            throw e;
+        }
+        return true;
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
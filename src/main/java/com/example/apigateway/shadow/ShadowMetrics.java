@@ -0,0 +1,117 @@
+package com.example.apigateway.shadow;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for one shadowed route, registered once so the request path only increments them.
+ */
+class ShadowMetrics {
+    private static final Logger log = LoggerFactory.getLogger(ShadowMetrics.class);
+
+    private final String route;
+    private final Timer primaryLatency;
+    private final Timer shadowLatency;
+    private final Timer shadowSlowerBy;
+    private final Timer shadowFasterBy;
+    private final Counter statusMatched;
+    private final Counter statusMismatched;
+    private final Counter shadowFailed;
+    private final Counter droppedSaturated;
+    private final Counter droppedNoInstance;
+    private final Counter droppedWithBody;
+    private final Counter droppedInvalidTarget;
+    private final Counter droppedMethod;
+
+    ShadowMetrics(MeterRegistry registry, String route, String target) {
+        this.route = route;
+        this.primaryLatency = latency(registry, route, target, "primary");
+        this.shadowLatency = latency(registry, route, target, "shadow");
+        this.shadowSlowerBy = delta(registry, route, target, "slower");
+        this.shadowFasterBy = delta(registry, route, target, "faster");
+        this.statusMatched = comparison(registry, route, target, "match");
+        this.statusMismatched = comparison(registry, route, target, "mismatch");
+        this.shadowFailed = comparison(registry, route, target, "shadow-failed");
+        this.droppedSaturated = dropped(registry, route, target, "saturated");
+        this.droppedNoInstance = dropped(registry, route, target, "no-instance");
+        this.droppedWithBody = dropped(registry, route, target, "request-body");
+        this.droppedInvalidTarget = dropped(registry, route, target, "invalid-target");
+        this.droppedMethod = dropped(registry, route, target, "method");
+    }
+
+    void record(int primaryStatus, long primaryNanos, int shadowStatus, long shadowNanos) {
+        primaryLatency.record(primaryNanos, TimeUnit.NANOSECONDS);
+        if (shadowStatus == ShadowClient.FAILED) {
+            shadowFailed.increment();
+            return;
+        }
+        shadowLatency.record(shadowNanos, TimeUnit.NANOSECONDS);
+
+        long deltaNanos = shadowNanos - primaryNanos;
+        if (deltaNanos >= 0) {
+            shadowSlowerBy.record(deltaNanos, TimeUnit.NANOSECONDS);
+        } else {
+            shadowFasterBy.record(-deltaNanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (primaryStatus == shadowStatus) {
+            statusMatched.increment();
+        } else {
+            statusMismatched.increment();
+            log.debug("Shadow status mismatch on {}: primary={} shadow={}", route, primaryStatus, shadowStatus);
+        }
+    }
+
+    void droppedSaturated() {
+        droppedSaturated.increment();
+    }
+
+    void droppedNoInstance() {
+        droppedNoInstance.increment();
+    }
+
+    void droppedWithBody() {
+        droppedWithBody.increment();
+    }
+
+    void droppedInvalidTarget() {
+        droppedInvalidTarget.increment();
+    }
+
+    void droppedMethod() {
+        droppedMethod.increment();
+    }
+
+    private static Timer latency(MeterRegistry registry, String route, String target, String side) {
+        return Timer.builder("gateway.shadow.latency")
+                .description("Latency of mirrored requests on the primary and shadow side")
+                .tags("route", route, "target", target, "side", side)
+                .register(registry);
+    }
+
+    private static Timer delta(MeterRegistry registry, String route, String target, String direction) {
+        return Timer.builder("gateway.shadow.latency.delta")
+                .description("Absolute latency difference between shadow and primary")
+                .tags("route", route, "target", target, "direction", direction)
+                .register(registry);
+    }
+
+    private static Counter comparison(MeterRegistry registry, String route, String target, String outcome) {
+        return Counter.builder("gateway.shadow.comparisons")
+                .description("Status comparisons between primary and shadow responses")
+                .tags("route", route, "target", target, "outcome", outcome)
+                .register(registry);
+    }
+
+    private static Counter dropped(MeterRegistry registry, String route, String target, String reason) {
+        return Counter.builder("gateway.shadow.dropped")
+                .description("Sampled requests that were not mirrored")
+                .tags("route", route, "target", target, "reason", reason)
+                .register(registry);
+    }
+}
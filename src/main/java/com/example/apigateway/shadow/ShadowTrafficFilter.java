@@ -0,0 +1,163 @@
+package com.example.apigateway.shadow;
+
+import com.example.apigateway.model.ServiceInstance;
+import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import com.example.apigateway.startup.GatewayWarmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mirrors a sample of a route's requests to a second registered service.
+ * <p>
+ * The primary exchange is never delayed or altered: the mirror is sent fire-and-forget through
+ * {@link ShadowClient}, and once both sides have completed their status and latency are compared.
+ * Only requests without a body are mirrored, because buffering a body would hold up the primary.
+ * Only the route's configured methods are mirrored, by default the safe {@code GET}, {@code HEAD}
+ * and {@code OPTIONS}, so a candidate sharing a datastore with the primary never repeats a write.
+ * Synthetic warm-up requests are never mirrored.
+ */
+public class ShadowTrafficFilter implements GatewayFilter {
+    private static final Logger log = LoggerFactory.getLogger(ShadowTrafficFilter.class);
+
+    static final String SHADOW_HEADER = "X-Gateway-Shadow";
+
+    private final String targetService;
+    private final double sampleRate;
+    private final Set<HttpMethod> methods;
+    private final InMemoryServiceRegistryRepository registry;
+    private final ShadowClient client;
+    private final ShadowMetrics metrics;
+    private final AtomicInteger nextInstance = new AtomicInteger();
+
+    ShadowTrafficFilter(String targetService, double sampleRate, Set<HttpMethod> methods,
+                        InMemoryServiceRegistryRepository registry, ShadowClient client, ShadowMetrics metrics) {
+        this.targetService = targetService;
+        this.sampleRate = sampleRate;
+        this.methods = Set.copyOf(methods);
+        this.registry = registry;
+        this.client = client;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (GatewayWarmup.isWarmupRequest(exchange.getRequest())) {
+            return chain.filter(exchange);
+        }
+        if (sampleRate <= 0 || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        if (!methods.contains(request.getMethod())) {
+            metrics.droppedMethod();
+            return chain.filter(exchange);
+        }
+        if (hasBody(request)) {
+            metrics.droppedWithBody();
+            return chain.filter(exchange);
+        }
+
+        List<ServiceInstance> instances = registry.getUpInstancesByService(targetService);
+        if (instances.isEmpty()) {
+            metrics.droppedNoInstance();
+            return chain.filter(exchange);
+        }
+        ServiceInstance target = instances.get(Math.floorMod(nextInstance.getAndIncrement(), instances.size()));
+
+        var comparison = new Comparison();
+        boolean sent;
+        try {
+            sent = client.trySend(request.getMethod(), shadowUri(target, request), shadowHeaders(request),
+                comparison::shadowCompleted);
+        } catch (RuntimeException e) {
+            // A bad registration on the shadow side must never fail the primary request
+            metrics.droppedInvalidTarget();
+            log.debug("Could not mirror to {}/{} at {}: {}",
+                target.serviceName(), target.instanceId(), target.baseUrl(), e.toString());
+            return chain.filter(exchange);
+        }
+        if (!sent) {
+            metrics.droppedSaturated();
+            return chain.filter(exchange);
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    comparison.primaryCompleted(
+                        signal == SignalType.ON_COMPLETE && status != null ? status.value() : ShadowClient.FAILED,
+                        System.nanoTime() - start);
+                });
+    }
+
+    private static boolean hasBody(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    // The request has already been through RewritePath, so this is the downstream path
+    private static URI shadowUri(ServiceInstance target, ServerHttpRequest request) {
+        URI uri = request.getURI();
+        return UriComponentsBuilder.fromHttpUrl(target.baseUrl())
+                .path(uri.getRawPath())
+                .query(uri.getRawQuery())
+                .build(true)
+                .toUri();
+    }
+
+    private static HttpHeaders shadowHeaders(ServerHttpRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(request.getHeaders());
+        headers.remove(HttpHeaders.HOST);
+        headers.set(SHADOW_HEADER, "true");
+        return headers;
+    }
+
+    /**
+     * Joins the primary and shadow outcomes; whichever side finishes last records the comparison.
+     */
+    private final class Comparison {
+        private final AtomicInteger pending = new AtomicInteger(2);
+        private int primaryStatus;
+        private long primaryNanos;
+        private int shadowStatus;
+        private long shadowNanos;
+
+        void primaryCompleted(int status, long elapsedNanos) {
+            primaryStatus = status;
+            primaryNanos = elapsedNanos;
+            finish();
+        }
+
+        void shadowCompleted(int status, long elapsedNanos) {
+            shadowStatus = status;
+            shadowNanos = elapsedNanos;
+            finish();
+        }
+
+        // The decrement publishes the plain writes above to the thread that sees zero
+        private void finish() {
+            if (pending.decrementAndGet() == 0) {
+                metrics.record(primaryStatus, primaryNanos, shadowStatus, shadowNanos);
+            }
+        }
+    }
+}
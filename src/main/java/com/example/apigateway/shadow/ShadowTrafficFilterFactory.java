@@ -0,0 +1,56 @@
+package com.example.apigateway.shadow;
+
+import com.example.apigateway.config.ShadowProperties;
+import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the per-route {@link ShadowTrafficFilter} for services configured under
+ * {@code gateway.shadow.routes}.
+ */
+public class ShadowTrafficFilterFactory {
+    private static final Logger log = LoggerFactory.getLogger(ShadowTrafficFilterFactory.class);
+
+    private final ShadowProperties properties;
+    private final InMemoryServiceRegistryRepository registry;
+    private final ShadowClient client;
+    private final MeterRegistry meterRegistry;
+    // Routes are rebuilt on every registry change; reusing the filter keeps its round-robin position
+    private final Map<String, Optional<GatewayFilter>> filters = new ConcurrentHashMap<>();
+
+    public ShadowTrafficFilterFactory(ShadowProperties properties, InMemoryServiceRegistryRepository registry,
+                                      ShadowClient client, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.registry = registry;
+        this.client = client;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Optional<GatewayFilter> forService(String serviceName) {
+        return filters.computeIfAbsent(serviceName, this::create);
+    }
+
+    private Optional<GatewayFilter> create(String serviceName) {
+        ShadowProperties.Route route = properties.routes().get(serviceName);
+        if (route == null || route.target() == null || route.target().isBlank()) {
+            return Optional.empty();
+        }
+        if (route.target().equals(serviceName)) {
+            log.warn("Ignoring shadow configuration for {}: target must differ from the primary service", serviceName);
+            return Optional.empty();
+        }
+
+        log.info("Mirroring {}% of {} {} traffic to {}",
+            route.sampleRate() * 100, serviceName, route.methods(), route.target());
+        var metrics = new ShadowMetrics(meterRegistry, serviceName + "-route", route.target());
+        return Optional.of(new ShadowTrafficFilter(route.target(), route.sampleRate(), route.methods(),
+            registry, client, metrics));
+    }
+}
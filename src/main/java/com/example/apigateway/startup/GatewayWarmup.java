@@ -0,0 +1,207 @@
+package com.example.apigateway.startup;
+
+import com.example.apigateway.config.WarmupProperties;
+import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Eagerly initialises the request path before the gateway reports itself ready.
+ * <p>
+ * Application runners execute after the web server has started but before Spring Boot
+ * publishes {@code ReadinessState.ACCEPTING_TRAFFIC}, so the readiness probe only goes
+ * green once routes are materialised, a LoadBalancer child context and instance snapshot
+ * exist for every known service, and the proxy path has served a few synthetic requests.
+ * Each phase is recorded as a {@link StartupStep} and summarised in the log.
+ * <p>
+ * Services registered after startup get their LoadBalancer warmed in the background when the
+ * registry first reports them, so their first proxied request does not build the child context.
+ * Synthetic requests carry {@link #WARMUP_HEADER} and are left out of access logging and shadowing.
+ */
+@Component
+public class GatewayWarmup implements ApplicationRunner, ApplicationListener<HeartbeatEvent> {
+    private static final Logger log = LoggerFactory.getLogger(GatewayWarmup.class);
+
+    public static final String WARMUP_HEADER = "X-Gateway-Warmup";
+    static final String UNKNOWN_SERVICE = "warmup-unknown-service";
+
+    private final InMemoryServiceRegistryRepository registry;
+    private final ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory;
+    private final RouteLocator routeLocator;
+    private final WebClient.Builder webClientBuilder;
+    private final ConfigurableApplicationContext context;
+    private final WarmupProperties properties;
+    private final Set<String> warmedServices = ConcurrentHashMap.newKeySet();
+
+    public GatewayWarmup(InMemoryServiceRegistryRepository registry,
+                         ReactiveLoadBalancer.Factory<ServiceInstance> loadBalancerFactory,
+                         RouteLocator routeLocator,
+                         WebClient.Builder webClientBuilder,
+                         ConfigurableApplicationContext context,
+                         WarmupProperties properties) {
+        this.registry = registry;
+        this.loadBalancerFactory = loadBalancerFactory;
+        this.routeLocator = routeLocator;
+        this.webClientBuilder = webClientBuilder;
+        this.context = context;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.enabled()) {
+            log.info("Gateway warm-up disabled");
+            return;
+        }
+
+        Set<String> serviceNames = new TreeSet<>(registry.getServiceNames());
+        log.info("Warming up gateway for {} known service(s)", serviceNames.size());
+
+        Map<String, Duration> timings = new LinkedHashMap<>();
+        timings.put("routes", timed("gateway.warmup.routes", serviceNames, this::warmRoutes));
+        timings.put("loadbalancer", timed("gateway.warmup.loadbalancer", serviceNames,
+                () -> warmLoadBalancers(serviceNames)));
+        timings.put("proxy", timed("gateway.warmup.proxy", serviceNames,
+                () -> warmProxyPath(serviceNames)));
+
+        long totalMillis = timings.values().stream().mapToLong(Duration::toMillis).sum();
+        log.info("Gateway warm-up finished in {} ms {}", totalMillis, timings.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue().toMillis() + "ms")
+                .collect(Collectors.joining(", ", "[", "]")));
+    }
+
+    /**
+     * Whether a request is one of the synthetic warm-up requests. Only loopback requests count,
+     * so clients cannot hide their traffic from the access log by sending the header.
+     */
+    public static boolean isWarmupRequest(ServerHttpRequest request) {
+        if (!request.getHeaders().containsKey(WARMUP_HEADER)) {
+            return false;
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                && remoteAddress.getAddress().isLoopbackAddress();
+    }
+
+    // Heartbeats are published by the registry on every change, often from a request thread,
+    // so new services are warmed off that thread
+    @Override
+    public void onApplicationEvent(HeartbeatEvent event) {
+        if (!properties.enabled()) {
+            return;
+        }
+        for (String serviceName : registry.getServiceNames()) {
+            if (warmedServices.add(serviceName)) {
+                Mono.fromRunnable(() -> warmLoadBalancer(serviceName))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .subscribe(null, e -> log.debug("Warming LoadBalancer for {} failed: {}", serviceName, e.toString()));
+            }
+        }
+    }
+
+    private Duration timed(String stepName, Set<String> serviceNames, Runnable phase) {
+        StartupStep step = context.getApplicationStartup().start(stepName)
+                .tag("services", String.valueOf(serviceNames.size()));
+        long start = System.nanoTime();
+        try {
+            phase.run();
+        } catch (RuntimeException e) {
+            // Warm-up is best effort; a cold path is still a working path
+            log.warn("Warm-up step {} failed: {}", stepName, e.toString());
+            step.tag("failed", e.getClass().getSimpleName());
+        } finally {
+            step.end();
+        }
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    // The caching RouteLocator has already built the routes, predicates and rewrite patterns
+    // included, when the context refreshed; this only checks that the cached routes resolve
+    private void warmRoutes() {
+        Long routeCount = routeLocator.getRoutes().count().block(properties.timeout());
+        log.debug("Resolved {} cached routes", routeCount);
+    }
+
+    // Creating the ReactiveLoadBalancer instantiates the per-service child context, and
+    // choosing once pulls an instance snapshot through the ServiceInstanceListSupplier
+    private void warmLoadBalancers(Set<String> serviceNames) {
+        for (String serviceName : serviceNames) {
+            warmedServices.add(serviceName);
+            warmLoadBalancer(serviceName);
+        }
+    }
+
+    private void warmLoadBalancer(String serviceName) {
+        ReactiveLoadBalancer<ServiceInstance> loadBalancer = loadBalancerFactory.getInstance(serviceName);
+        if (loadBalancer == null) {
+            log.warn("No LoadBalancer available for service: {}", serviceName);
+            return;
+        }
+        Response<ServiceInstance> response = Mono.from(loadBalancer.choose()).block(properties.timeout());
+        log.debug("Warmed LoadBalancer for {} (instance available: {})",
+                serviceName, response != null && response.hasServer());
+    }
+
+    private void warmProxyPath(Set<String> serviceNames) {
+        if (!(context instanceof WebServerApplicationContext webContext) || webContext.getWebServer() == null) {
+            log.debug("No local web server, skipping synthetic requests");
+            return;
+        }
+
+        List<String> paths = new ArrayList<>();
+        for (String serviceName : serviceNames) {
+            for (int i = 0; i < properties.syntheticRequests(); i++) {
+                paths.add("/gateway/" + serviceName + properties.syntheticPath());
+            }
+        }
+        // Exercises the fallback route so the filter chain is warm even with an empty registry
+        paths.add("/gateway/" + UNKNOWN_SERVICE + "/");
+
+        WebClient client = webClientBuilder
+                .baseUrl("http://localhost:" + webContext.getWebServer().getPort())
+                .build();
+        Long completed = Flux.fromIterable(paths)
+                .concatMap(path -> client.get()
+                        .uri(path)
+                        .header(WARMUP_HEADER, "true")
+                        .exchangeToMono(response -> response.releaseBody()
+                                .thenReturn(response.statusCode().value()))
+                        .doOnNext(status -> log.debug("Synthetic request {} returned {}", path, status))
+                        .timeout(properties.timeout())
+                        .onErrorResume(e -> {
+                            log.debug("Synthetic request {} failed: {}", path, e.toString());
+                            return Mono.empty();
+                        }))
+                .count()
+                .block(properties.timeout().multipliedBy(paths.size()));
+        log.debug("Completed {}/{} synthetic requests", completed, paths.size());
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.apigateway.accesslog;
+
+import com.example.apigateway.startup.GatewayWarmup;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class AccessLogFilterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(16);
+
+    @Test
+    void shouldAlwaysKeepFailuresServerErrorsAndSlowRequests() {
+        var filter = new AccessLogFilter(ringBuffer, 0.0, Duration.ofSeconds(1));
+
+        assertTrue(filter.shouldKeep(200, MILLIS, true));
+        assertTrue(filter.shouldKeep(500, MILLIS, false));
+        assertTrue(filter.shouldKeep(503, MILLIS, false));
+        assertTrue(filter.shouldKeep(200, 1_000 * MILLIS, false));
+        assertTrue(filter.shouldKeep(404, 2_000 * MILLIS, false));
+    }
+
+    @Test
+    void shouldSampleSuccessesAndClientErrors() {
+        var none = new AccessLogFilter(ringBuffer, 0.0, Duration.ofSeconds(1));
+        var all = new AccessLogFilter(ringBuffer, 1.0, Duration.ofSeconds(1));
+
+        assertFalse(none.shouldKeep(200, MILLIS, false));
+        assertFalse(none.shouldKeep(404, MILLIS, false));
+        assertFalse(none.shouldKeep(429, MILLIS, false));
+        assertTrue(all.shouldKeep(200, MILLIS, false));
+        assertTrue(all.shouldKeep(404, MILLIS, false));
+    }
+
+    @Test
+    void shouldCaptureStatusBytesRouteAndInstance() {
+        // Given
+        var filter = new AccessLogFilter(ringBuffer, 1.0, Duration.ofSeconds(1));
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/gateway/service-a/users"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("service-a-route").uri("http://localhost:8081").predicate(e -> true).build());
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(
+                new DefaultServiceInstance("instance-1", "service-a", "localhost", 8081, false)));
+
+        // When
+        StepVerifier.create(filter.filter(exchange, respondWith(HttpStatus.CREATED, "{\"id\":", "1}"))).verifyComplete();
+
+        // Then
+        var recorded = drain();
+        assertEquals(1, recorded.size());
+        var entry = recorded.get(0);
+        assertEquals("service-a-route", entry.routeId());
+        assertEquals("instance-1", entry.instanceId());
+        assertEquals(HttpMethod.GET, entry.method());
+        assertEquals("/gateway/service-a/users", entry.path());
+        assertEquals(201, entry.status());
+        assertEquals(8, entry.bytes());
+    }
+
+    @Test
+    void shouldRecordFailedExchangeAsServerError() {
+        // Given
+        var filter = new AccessLogFilter(ringBuffer, 0.0, Duration.ofSeconds(1));
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users"));
+
+        // When
+        StepVerifier.create(filter.filter(exchange, e -> Mono.error(new IllegalStateException("boom"))))
+                .verifyError(IllegalStateException.class);
+
+        // Then
+        var recorded = drain();
+        assertEquals(1, recorded.size());
+        assertEquals(500, recorded.get(0).status());
+        assertEquals(0, recorded.get(0).bytes());
+    }
+
+    @Test
+    void shouldMeasureUpstreamFromLoadBalancerToResponseCommit() throws InterruptedException {
+        // Given: 30ms spent before the upstream call, 50ms waiting on the upstream
+        var filter = new AccessLogFilter(ringBuffer, 1.0, Duration.ofSeconds(1));
+        var upstreamTiming = new AccessLogFilter.UpstreamTimingFilter();
+        GatewayFilterChain chain = exchange -> Mono.delay(Duration.ofMillis(30))
+                .then(Mono.defer(() -> upstreamTiming.filter(exchange, upstream -> Mono.delay(Duration.ofMillis(50))
+                        .then(Mono.defer(() -> respond(upstream, HttpStatus.OK, "ok"))))));
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("http://localhost:8081/users"));
+
+        // When
+        filter.filter(exchange, chain).block();
+
+        // Then
+        var entry = awaitEntry();
+        assertTrue(entry.upstreamNanos() >= 50 * MILLIS, "upstream " + entry.upstreamNanos());
+        assertTrue(entry.totalNanos() >= 80 * MILLIS, "total " + entry.totalNanos());
+        assertTrue(entry.totalNanos() - entry.upstreamNanos() >= 30 * MILLIS);
+    }
+
+    @Test
+    void shouldReportNoUpstreamTimeWhenNotProxied() {
+        // Given
+        var filter = new AccessLogFilter(ringBuffer, 1.0, Duration.ofSeconds(1));
+
+        // When
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/users")),
+            respondWith(HttpStatus.NOT_FOUND)).block();
+
+        // Then
+        var entry = drain().get(0);
+        assertEquals(404, entry.status());
+        assertEquals(-1, entry.upstreamNanos());
+        assertTrue(entry.totalNanos() >= 0);
+    }
+
+    @Test
+    void shouldReportNoUpstreamTimeForNonProxiedRoute() {
+        // Given: the fallback route passes UpstreamTimingFilter but never leaves the gateway
+        var filter = new AccessLogFilter(ringBuffer, 1.0, Duration.ofSeconds(1));
+        var upstreamTiming = new AccessLogFilter.UpstreamTimingFilter();
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/gateway/unknown/users"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("no://op"));
+
+        // When
+        filter.filter(exchange, e -> upstreamTiming.filter(e, respondWith(HttpStatus.NOT_FOUND))).block();
+
+        // Then
+        var entry = drain().get(0);
+        assertEquals(404, entry.status());
+        assertEquals(-1, entry.upstreamNanos());
+    }
+
+    @Test
+    void shouldNotRecordWarmupRequests() {
+        // Given
+        var filter = new AccessLogFilter(ringBuffer, 1.0, Duration.ofSeconds(1));
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/gateway/service-a/")
+                .header(GatewayWarmup.WARMUP_HEADER, "true")
+                .remoteAddress(new InetSocketAddress("127.0.0.1", 50000)));
+
+        // When
+        filter.filter(exchange, respondWith(HttpStatus.INTERNAL_SERVER_ERROR)).block();
+
+        // Then
+        assertTrue(drain().isEmpty());
+    }
+
+    private static GatewayFilterChain respondWith(HttpStatus status, String... chunks) {
+        return exchange -> respond(exchange, status, chunks);
+    }
+
+    private static Mono<Void> respond(ServerWebExchange exchange, HttpStatus status, String... chunks) {
+        var response = exchange.getResponse();
+        response.setStatusCode(status);
+        return response.writeWith(Flux.fromArray(chunks)
+                .map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    // The entry is recorded in doFinally, which may run on the delay thread just after block() returns
+    private Recorded awaitEntry() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        List<Recorded> recorded = drain();
+        while (recorded.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            recorded = drain();
+        }
+        assertEquals(1, recorded.size());
+        return recorded.get(0);
+    }
+
+    // Slots are reused after draining, so copy out what the assertions need
+    private List<Recorded> drain() {
+        List<Recorded> recorded = new ArrayList<>();
+        ringBuffer.drain(entry -> recorded.add(new Recorded(entry.routeId(), entry.instanceId(), entry.method(),
+            entry.path().value(), entry.status(), entry.bytes(), entry.upstreamNanos(), entry.totalNanos())), 16);
+        return recorded;
+    }
+
+    private record Recorded(String routeId, String instanceId, HttpMethod method, String path,
+                            int status, long bytes, long upstreamNanos, long totalNanos) {}
+}
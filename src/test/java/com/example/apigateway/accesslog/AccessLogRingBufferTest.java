@@ -0,0 +1,91 @@
+package com.example.apigateway.accesslog;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogRingBufferTest {
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertEquals(8, new AccessLogRingBuffer(5).capacity());
+        assertEquals(8, new AccessLogRingBuffer(8).capacity());
+        assertEquals(1, new AccessLogRingBuffer(1).capacity());
+    }
+
+    @Test
+    void shouldDrainPublishedEntriesInOrder() {
+        // Given
+        var ringBuffer = new AccessLogRingBuffer(4);
+        publish(ringBuffer, 200);
+        publish(ringBuffer, 404);
+        publish(ringBuffer, 503);
+
+        // When
+        List<Integer> statuses = new ArrayList<>();
+        int drained = ringBuffer.drain(entry -> statuses.add(entry.status()), 10);
+
+        // Then
+        assertEquals(3, drained);
+        assertEquals(List.of(200, 404, 503), statuses);
+        assertEquals(0, ringBuffer.drain(entry -> fail("buffer should be empty"), 10));
+    }
+
+    @Test
+    void shouldDropWhenFullInsteadOfBlocking() {
+        // Given
+        var ringBuffer = new AccessLogRingBuffer(2);
+        assertTrue(publish(ringBuffer, 200));
+        assertTrue(publish(ringBuffer, 201));
+
+        // When
+        boolean accepted = publish(ringBuffer, 202);
+
+        // Then
+        assertFalse(accepted);
+        assertEquals(1, ringBuffer.droppedCount());
+
+        // Slots are reusable once drained
+        assertEquals(1, ringBuffer.drain(entry -> {}, 1));
+        assertTrue(publish(ringBuffer, 203));
+    }
+
+    @Test
+    void shouldNotLoseEntriesWithConcurrentProducers() throws InterruptedException {
+        // Given
+        var ringBuffer = new AccessLogRingBuffer(1 << 14);
+        int producers = 4;
+        int perProducer = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        var done = new CountDownLatch(producers);
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    publish(ringBuffer, 200);
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Then
+        int drained = ringBuffer.drain(entry -> assertEquals(200, entry.status()), Integer.MAX_VALUE);
+        assertEquals(producers * perProducer, drained);
+        assertEquals(0, ringBuffer.droppedCount());
+    }
+
+    private boolean publish(AccessLogRingBuffer ringBuffer, int status) {
+        return ringBuffer.tryPublish(0L, "test-route", "instance-1", HttpMethod.GET, null, status, 10L, 1_000L, 2_000L);
+    }
+}
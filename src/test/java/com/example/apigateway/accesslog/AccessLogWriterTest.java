@@ -0,0 +1,103 @@
+package com.example.apigateway.accesslog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.RequestPath;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogWriterTest {
+
+    private static final Instant FIXED_TIME = Instant.parse("2025-05-03T10:15:30Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldWriteOneJsonLinePerEntry() throws IOException {
+        // Given
+        var ringBuffer = new AccessLogRingBuffer(8);
+        ringBuffer.tryPublish(FIXED_TIME.toEpochMilli(), "service-a-route", "instance-1", HttpMethod.GET,
+            RequestPath.parse("/gateway/service-a/users", null), 200, 512, 1_500_000, 2_250_000);
+        ringBuffer.tryPublish(FIXED_TIME.toEpochMilli(), null, null, HttpMethod.POST,
+            RequestPath.parse("/gateway/unknown", null), 404, 0, -1, 999);
+
+        // When
+        List<String> lines = writeAll(ringBuffer);
+
+        // Then
+        assertEquals(List.of(
+            "{\"ts\":\"2025-05-03T10:15:30Z\",\"route\":\"service-a-route\",\"instance\":\"instance-1\","
+                + "\"method\":\"GET\",\"path\":\"/gateway/service-a/users\",\"status\":200,\"bytes\":512,"
+                + "\"upstream_us\":1500,\"total_us\":2250}",
+            "{\"ts\":\"2025-05-03T10:15:30Z\",\"route\":null,\"instance\":null,"
+                + "\"method\":\"POST\",\"path\":\"/gateway/unknown\",\"status\":404,\"bytes\":0,"
+                + "\"upstream_us\":-1,\"total_us\":0}"
+        ), lines);
+    }
+
+    @Test
+    void shouldEscapeStringFields() throws IOException {
+        // Given
+        var ringBuffer = new AccessLogRingBuffer(8);
+        ringBuffer.tryPublish(FIXED_TIME.toEpochMilli(), "route\"with\\quotes", "line\nbreak\ttab\r\u0001",
+            HttpMethod.GET, RequestPath.parse("/caf%C3%A9", null), 200, 0, 0, 0);
+
+        // When
+        String line = writeAll(ringBuffer).get(0);
+
+        // Then
+        assertTrue(line.contains("\"route\":\"route\\\"with\\\\quotes\""), line);
+        assertTrue(line.contains("\"instance\":\"line\\nbreak\\ttab\\r\\u0001\""), line);
+        assertTrue(line.contains("\"path\":\"/caf%C3%A9\""), line);
+    }
+
+    @Test
+    void shouldAppendToExistingFile() throws IOException {
+        // Given
+        Path file = directory.resolve("access.log");
+        Files.writeString(file, "existing\n");
+        var ringBuffer = new AccessLogRingBuffer(8);
+        ringBuffer.tryPublish(FIXED_TIME.toEpochMilli(), "r", "i", HttpMethod.GET,
+            RequestPath.parse("/", null), 200, 0, 0, 0);
+
+        // When
+        var writer = new AccessLogWriter(ringBuffer, file, 16, Duration.ofMillis(10));
+        writer.start();
+        writer.stop();
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertEquals("existing", lines.get(0));
+        assertFalse(writer.isRunning());
+    }
+
+    @Test
+    void shouldStopAfterWebServer() {
+        var writer = new AccessLogWriter(new AccessLogRingBuffer(8), directory.resolve("access.log"), 16, Duration.ofMillis(10));
+
+        // Higher phases stop first; the reactive web server itself stops at DEFAULT_PHASE - 2048
+        assertTrue(writer.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE);
+        assertTrue(writer.getPhase() < SmartLifecycle.DEFAULT_PHASE - 2048);
+    }
+
+    // Stopping drains whatever is still buffered before the file is closed
+    private List<String> writeAll(AccessLogRingBuffer ringBuffer) throws IOException {
+        Path file = directory.resolve("logs/access.log");
+        var writer = new AccessLogWriter(ringBuffer, file, 16, Duration.ofMillis(10));
+        writer.start();
+        writer.stop();
+        return Files.readAllLines(file);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.apigateway.compression;
+
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import com.example.apigateway.config.CompressionProperties;
+import com.github.luben.zstd.ZstdInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionFilterTest {
+
+    private static final String JSON = "{\"users\":[" + "{\"id\":1,\"name\":\"John Doe\"},".repeat(200) + "{}]}";
+
+    @Test
+    void shouldNegotiateByServerPreference() {
+        var preference = List.of(ContentEncoding.ZSTD, ContentEncoding.GZIP);
+
+        assertEquals(ContentEncoding.ZSTD, ContentEncoding.negotiate("gzip, zstd", preference));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("gzip, deflate, br", preference));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate("zstd;q=0, *", preference));
+        assertEquals(ContentEncoding.ZSTD, ContentEncoding.negotiate("*;q=0.5", preference));
+        assertEquals(ContentEncoding.BR, ContentEncoding.negotiate("gzip, deflate, br",
+            List.of(ContentEncoding.ZSTD, ContentEncoding.BR, ContentEncoding.GZIP)));
+        assertNull(ContentEncoding.negotiate("br", preference));
+        assertNull(ContentEncoding.negotiate("gzip;q=0", List.of(ContentEncoding.GZIP)));
+        assertNull(ContentEncoding.negotiate(null, preference));
+    }
+
+    @Test
+    void shouldGzipJsonAndStripAcceptEncodingUpstream() throws IOException {
+        // Given
+        var upstreamAcceptEncoding = new AtomicReference<String>("unset");
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        // When
+        createFilter(Map.of()).filter(exchange, upstream(upstreamAcceptEncoding, MediaType.APPLICATION_JSON, "\"v1\"")).block();
+
+        // Then
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertNull(upstreamAcceptEncoding.get());
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING));
+        assertEquals("W/\"v1\"", headers.getETag());
+        assertFalse(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(JSON, decode(new GZIPInputStream(new ByteArrayInputStream(body(exchange)))));
+    }
+
+    @Test
+    void shouldPreferZstdWhenAccepted() throws IOException {
+        // Given
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd"));
+
+        // When
+        createFilter(Map.of()).filter(exchange, upstream(new AtomicReference<>(), MediaType.APPLICATION_JSON, null)).block();
+
+        // Then
+        assertEquals("zstd", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(JSON, decode(new ZstdInputStream(new ByteArrayInputStream(body(exchange)))));
+    }
+
+    @Test
+    void shouldFallBackToBrotliWithoutZstd() throws IOException {
+        // Given
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"));
+
+        // When
+        createFilter(Map.of()).filter(exchange, upstream(new AtomicReference<>(), MediaType.APPLICATION_JSON, null)).block();
+
+        // Then
+        assertEquals("br", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(JSON, decode(new BrotliInputStream(new ByteArrayInputStream(body(exchange)))));
+    }
+
+    @Test
+    void shouldPassThroughDisallowedContentType() {
+        // Given
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/image")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        // When
+        createFilter(Map.of()).filter(exchange, upstream(new AtomicReference<>(), MediaType.IMAGE_PNG, null)).block();
+
+        // Then
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(JSON, new String(body(exchange), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldPassThroughResponsesBelowMinimumSize() {
+        // Given
+        var filter = new CompressionFilterFactory(properties(DataSize.ofBytes(JSON.length() + 1), Map.of()))
+                .forService("service-a").orElseThrow();
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        // When
+        filter.filter(exchange, upstream(new AtomicReference<>(), MediaType.APPLICATION_JSON, null)).block();
+
+        // Then
+        assertNull(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void shouldHonourPerRouteOverride() {
+        var factory = new CompressionFilterFactory(properties(DataSize.ofKilobytes(1),
+            Map.of("service-a", new CompressionProperties.Route(false, null, null, null))));
+
+        assertTrue(factory.forService("service-a").isEmpty());
+        assertTrue(factory.forService("service-b").isPresent());
+    }
+
+    private GatewayFilter createFilter(Map<String, CompressionProperties.Route> routes) {
+        return new CompressionFilterFactory(properties(DataSize.ofBytes(256), routes))
+                .forService("service-a").orElseThrow();
+    }
+
+    private CompressionProperties properties(DataSize minSize, Map<String, CompressionProperties.Route> routes) {
+        return new CompressionProperties(true, List.of(ContentEncoding.ZSTD, ContentEncoding.BR, ContentEncoding.GZIP),
+            minSize, List.of("application/json", "text/*"), 6, 3, 4, routes);
+    }
+
+    // Mimics the proxied backend: headers first, then a body split over several buffers
+    private GatewayFilterChain upstream(AtomicReference<String> acceptEncoding, MediaType contentType, String etag) {
+        return exchange -> {
+            acceptEncoding.set(exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING));
+            var response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(contentType);
+            response.getHeaders().setContentLength(JSON.length());
+            if (etag != null) {
+                response.getHeaders().setETag(etag);
+            }
+            byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+            int half = bytes.length / 2;
+            return response.writeWith(Flux.just(
+                response.bufferFactory().wrap(Arrays.copyOfRange(bytes, 0, half)),
+                response.bufferFactory().wrap(Arrays.copyOfRange(bytes, half, bytes.length))));
+        };
+    }
+
+    private static byte[] body(MockServerWebExchange exchange) {
+        DataBuffer joined = DataBufferUtils.join(exchange.getResponse().getBody()).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        DataBufferUtils.release(joined);
+        return bytes;
+    }
+
+    private static String decode(InputStream compressed) throws IOException {
+        try (compressed) {
+            return new String(compressed.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.accesslog.AccessLogRingBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.RequestPath;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogConfigTest {
+
+    @Test
+    void shouldPublishDroppedEntriesAsCounter() {
+        // Given
+        var ringBuffer = new AccessLogRingBuffer(1);
+        var meterRegistry = new SimpleMeterRegistry();
+        new AccessLogConfig().accessLogMetrics(ringBuffer).bindTo(meterRegistry);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            ringBuffer.tryPublish(0, "service-a-route", "instance-1", HttpMethod.GET,
+                RequestPath.parse("/gateway/service-a/users", null), 200, 0, -1, 0);
+        }
+
+        // Then
+        assertEquals(2.0, meterRegistry.get("gateway.access-log.dropped").functionCounter().count());
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.apigateway.config;
 
+import com.example.apigateway.compression.CompressionFilterFactory;
 import com.example.apigateway.model.ServiceInstance;
 import com.example.apigateway.model.ServiceStatus;
 import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import com.example.apigateway.shadow.ShadowTrafficFilterFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -22,6 +24,12 @@ class GatewayConfigTest {
     @Mock
     private InMemoryServiceRegistryRepository repository;
 
+    @Mock
+    private ShadowTrafficFilterFactory shadowFilters;
+
+    @Mock
+    private CompressionFilterFactory compressionFilters;
+
     @Mock
     private RouteLocatorBuilder builder;
 
@@ -42,7 +50,7 @@ class GatewayConfigTest {
         when(builder.routes()).thenReturn(routesBuilder);
         
         // When
-        RouteLocator routeLocator = gateway.dynamicRoutes(builder, repository);
+        RouteLocator routeLocator = gateway.dynamicRoutes(builder, repository, shadowFilters, compressionFilters);
         
         // Then
         StepVerifier.create(routeLocator.getRoutes())
@@ -65,7 +73,7 @@ class GatewayConfigTest {
         when(builder.routes()).thenReturn(routesBuilder);
         
         // When
-        RouteLocator routeLocator = gateway.dynamicRoutes(builder, repository);
+        RouteLocator routeLocator = gateway.dynamicRoutes(builder, repository, shadowFilters, compressionFilters);
         
         // Then
         StepVerifier.create(routeLocator.getRoutes())
@@ -89,7 +97,7 @@ class GatewayConfigTest {
         when(builder.routes()).thenReturn(routesBuilder);
         
         // When
-        RouteLocator routeLocator = gateway.dynamicRoutes(builder, repository);
+        RouteLocator routeLocator = gateway.dynamicRoutes(builder, repository, shadowFilters, compressionFilters);
         
         // Then
         StepVerifier.create(routeLocator.getRoutes())
@@ -0,0 +1,165 @@
+package com.example.apigateway.config;
+
+import com.example.apigateway.model.ServiceInstance;
+import com.example.apigateway.model.ServiceStatus;
+import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends requests through the running gateway, so route filters run in the real chain next to the
+ * gateway's global filters and proxy to a live backend. Services are only registered once the
+ * gateway is up, as they are in a real deployment.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "gateway.warmup.enabled=false",
+    "gateway.access-log.enabled=false",
+    "gateway.compression.min-size=256B",
+    "gateway.shadow.routes.service-s.target=service-s-candidate",
+    "gateway.shadow.routes.service-s.sample-rate=1.0"
+})
+class GatewayRoutingIntegrationTest {
+
+    private static final String JSON = "{\"users\":[" + "{\"id\":1,\"name\":\"John Doe\"},".repeat(200) + "{}]}";
+    private static final Instant FIXED_TIME = Instant.parse("2025-05-03T10:15:30Z");
+
+    private static final AtomicInteger mirrored = new AtomicInteger();
+
+    // Every registered service points at this backend
+    private static final DisposableServer backend = HttpServer.create()
+            .host("localhost")
+            .port(0)
+            .route(routes -> routes.get("/users", (request, response) -> {
+                if (request.requestHeaders().contains("X-Gateway-Shadow")) {
+                    mirrored.incrementAndGet();
+                }
+                return response
+                    .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                    .header("X-Backend-Accept-Encoding", String.valueOf(request.requestHeaders().get(HttpHeaders.ACCEPT_ENCODING)))
+                    .sendString(Mono.just(JSON));
+            }))
+            .bindNow();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InMemoryServiceRegistryRepository registry;
+
+    private WebTestClient webClient;
+
+    // Spring's default connector negotiates and decodes gzip itself, which would hide the encoding
+    @BeforeEach
+    void setUp() {
+        webClient = WebTestClient.bindToServer(new ReactorClientHttpConnector(HttpClient.create()))
+                .baseUrl("http://localhost:" + port)
+                .build();
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        backend.disposeNow();
+    }
+
+    @Test
+    void shouldCompressResponseOfServiceRegisteredAfterStartup() throws IOException {
+        // Given
+        registry.register(createTestInstance("service-a", "instance-1"));
+
+        // When
+        var result = webClient.get().uri("/gateway/service-a/users")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals("X-Backend-Accept-Encoding", "null")
+                .expectBody(byte[].class)
+                .returnResult();
+
+        // Then
+        assertEquals(JSON, decode(new GZIPInputStream(new ByteArrayInputStream(result.getResponseBody()))));
+    }
+
+    @Test
+    void shouldPassThroughWithoutAcceptEncoding() {
+        registry.register(createTestInstance("service-a", "instance-1"));
+
+        webClient.get().uri("/gateway/service-a/users")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .expectBody(String.class).isEqualTo(JSON);
+    }
+
+    @Test
+    void shouldRouteServiceRegisteredAfterStartup() {
+        // Given
+        webClient.get().uri("/service-b/users").exchange().expectStatus().isNotFound();
+        webClient.get().uri("/gateway/service-b/users").exchange().expectStatus().isNotFound();
+
+        // When
+        registry.register(createTestInstance("service-b", "instance-1"));
+
+        // Then
+        webClient.get().uri("/service-b/users")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(JSON);
+        webClient.get().uri("/gateway/service-b/users")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(JSON);
+    }
+
+    @Test
+    void shouldShadowServiceRegisteredAfterStartup() throws InterruptedException {
+        // Given
+        registry.register(createTestInstance("service-s", "instance-1"));
+        registry.register(createTestInstance("service-s-candidate", "instance-1"));
+
+        // When
+        webClient.get().uri("/gateway/service-s/users")
+                .exchange()
+                .expectStatus().isOk();
+
+        // Then: the mirror is fire-and-forget, so it may land just after the primary response
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (mirrored.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, mirrored.get());
+    }
+
+    private static ServiceInstance createTestInstance(String serviceName, String instanceId) {
+        return new ServiceInstance(serviceName, instanceId,
+            "http://localhost:" + backend.port(), ServiceStatus.UP, FIXED_TIME);
+    }
+
+    private static String decode(InputStream compressed) throws IOException {
+        try (compressed) {
+            return new String(compressed.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.apigateway.discovery;
+
+import com.example.apigateway.model.ServiceInstance;
+import com.example.apigateway.model.ServiceStatus;
+import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+class RegistryReactiveDiscoveryClientTest {
+
+    private InMemoryServiceRegistryRepository repository;
+    private RegistryReactiveDiscoveryClient discoveryClient;
+    private static final Instant FIXED_TIME = Instant.parse("2025-05-03T10:15:30Z");
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryServiceRegistryRepository();
+        discoveryClient = new RegistryReactiveDiscoveryClient(repository);
+    }
+
+    @Test
+    void shouldExposeOnlyUpInstances() {
+        // Given
+        repository.register(createTestInstance("service-a", "instance-1", "http://localhost:8081"));
+        repository.register(createTestInstance("service-a", "instance-2", "https://localhost:8443"));
+        repository.updateStatus("service-a", "instance-1", ServiceStatus.DOWN);
+
+        // When & Then
+        StepVerifier.create(discoveryClient.getInstances("service-a"))
+            .expectNextMatches(instance ->
+                instance.getInstanceId().equals("instance-2") &&
+                instance.getHost().equals("localhost") &&
+                instance.getPort() == 8443 &&
+                instance.isSecure())
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldSkipInstancesWithMalformedBaseUrl() {
+        // Given
+        repository.register(createTestInstance("service-a", "instance-1", "http://bad host"));
+        repository.register(createTestInstance("service-a", "instance-2", "http://localhost:8082"));
+        repository.register(createTestInstance("service-b", "instance-1", "http://localhost:8083"));
+
+        // When & Then
+        StepVerifier.create(discoveryClient.getInstances("service-a"))
+            .expectNextMatches(instance -> instance.getInstanceId().equals("instance-2"))
+            .verifyComplete();
+        StepVerifier.create(discoveryClient.getInstances("service-b"))
+            .expectNextCount(1)
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldResolveLowerCasedServiceId() {
+        // Given
+        repository.register(createTestInstance("Service-A", "instance-1", "http://localhost:8081"));
+
+        // When & Then
+        StepVerifier.create(discoveryClient.getInstances("service-a"))
+            .expectNextMatches(instance -> instance.getServiceId().equals("Service-A"))
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldReflectRegistryChanges() {
+        // Given
+        repository.register(createTestInstance("service-a", "instance-1", "http://localhost:8081"));
+        StepVerifier.create(discoveryClient.getServices())
+            .expectNext("service-a")
+            .verifyComplete();
+
+        // When
+        repository.register(createTestInstance("service-b", "instance-1", "http://localhost:8082"));
+        repository.deregister("service-a", "instance-1");
+
+        // Then
+        StepVerifier.create(discoveryClient.getServices())
+            .expectNext("service-b")
+            .verifyComplete();
+        StepVerifier.create(discoveryClient.getInstances("service-a"))
+            .verifyComplete();
+    }
+
+    private ServiceInstance createTestInstance(String serviceName, String instanceId, String baseUrl) {
+        return new ServiceInstance(
+            serviceName,
+            instanceId,
+            baseUrl,
+            ServiceStatus.UP,
+            FIXED_TIME
+        );
+    }
+}
@@ -5,14 +5,19 @@ import com.example.apigateway.model.ServiceStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class InMemoryServiceRegistryRepositoryTest {
@@ -23,6 +28,9 @@ class InMemoryServiceRegistryRepositoryTest {
     @Mock
     private Logger mockLogger;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     void setUp() {
         repository = new InMemoryServiceRegistryRepository();
@@ -109,6 +117,86 @@ class InMemoryServiceRegistryRepositoryTest {
         assertTrue(instances.isEmpty());
     }
 
+    @Test
+    void shouldReturnSharedEmptyViewsForUnknownService() {
+        // When
+        var first = repository.getInstancesByService("unknown-service");
+        var second = repository.getInstancesByService("unknown-service");
+
+        // Then
+        assertSame(first, second);
+        assertNull(repository.getInstance("unknown-service", "instance-1"));
+        assertTrue(repository.getUpInstancesByService("unknown-service").isEmpty());
+    }
+
+    @Test
+    void shouldReuseViewsUntilRegistryChanges() {
+        // Given
+        repository.register(createTestInstance("service-1", "instance-1", ServiceStatus.UP));
+        var before = repository.getAllInstances();
+        long revision = repository.revision();
+
+        // When
+        var unchanged = repository.getAllInstances();
+        repository.updateStatus("service-1", "instance-1", ServiceStatus.DOWN);
+        var after = repository.getAllInstances();
+
+        // Then
+        assertSame(before, unchanged);
+        assertNotSame(before, after);
+        assertTrue(repository.revision() > revision);
+        assertEquals(ServiceStatus.DOWN, after.iterator().next().status());
+    }
+
+    @Test
+    void shouldIndexInstancesByStatusAndHost() {
+        // Given
+        repository.register(createTestInstance("service-1", "instance-1", ServiceStatus.UP));
+        repository.register(new ServiceInstance("service-2", "instance-1", "http://other-host:9090", ServiceStatus.UP, FIXED_TIME));
+        repository.updateStatus("service-1", "instance-1", ServiceStatus.DOWN);
+
+        // Then
+        assertEquals(List.of("service-1", "service-2"), repository.getServiceNames());
+        assertEquals(1, repository.getInstancesByStatus(ServiceStatus.DOWN).size());
+        assertEquals("service-2", repository.getInstancesByStatus(ServiceStatus.UP).get(0).serviceName());
+        assertEquals(1, repository.getInstancesByHost("localhost").size());
+        assertEquals("service-2", repository.getInstancesByHost("other-host").get(0).serviceName());
+        assertTrue(repository.getInstancesByHost("unknown-host").isEmpty());
+    }
+
+    @Test
+    void shouldRemoveServiceFromIndexesWhenLastInstanceDeregisters() {
+        // Given
+        repository.register(createTestInstance("service-1", "instance-1", ServiceStatus.UP));
+
+        // When
+        repository.deregister("service-1", "instance-1");
+
+        // Then
+        assertTrue(repository.getServiceNames().isEmpty());
+        assertTrue(repository.getInstancesByHost("localhost").isEmpty());
+        assertFalse(repository.deregister("service-1", "instance-1"));
+    }
+
+    @Test
+    void shouldPublishHeartbeatForEachRegistryChange() {
+        // Given
+        repository.setApplicationEventPublisher(eventPublisher);
+        var heartbeats = ArgumentCaptor.forClass(HeartbeatEvent.class);
+
+        // When
+        repository.register(createTestInstance("service-1", "instance-1", ServiceStatus.UP));
+        repository.updateStatus("service-1", "instance-1", ServiceStatus.DOWN);
+        repository.updateStatus("service-1", "unknown", ServiceStatus.DOWN);
+        repository.deregister("service-1", "instance-1");
+        repository.deregister("service-1", "instance-1");
+
+        // Then
+        verify(eventPublisher, times(3)).publishEvent(heartbeats.capture());
+        assertEquals(List.of(1L, 2L, 3L), heartbeats.getAllValues().stream().map(HeartbeatEvent::getValue).toList());
+        assertEquals(repository.revision(), heartbeats.getValue().getValue());
+    }
+
     private ServiceInstance createTestInstance(String serviceName, String instanceId, ServiceStatus status) {
         return new ServiceInstance(
             serviceName,
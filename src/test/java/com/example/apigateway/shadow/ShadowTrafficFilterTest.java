@@ -0,0 +1,254 @@
+package com.example.apigateway.shadow;
+
+import com.example.apigateway.config.ShadowProperties;
+import com.example.apigateway.model.ServiceInstance;
+import com.example.apigateway.model.ServiceStatus;
+import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import com.example.apigateway.startup.GatewayWarmup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShadowTrafficFilterTest {
+
+    private InMemoryServiceRegistryRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<ClientRequest> mirrored = new ArrayList<>();
+    private static final Instant FIXED_TIME = Instant.parse("2025-05-03T10:15:30Z");
+
+    private static final GatewayFilterChain PRIMARY = exchange -> {
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryServiceRegistryRepository();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldMirrorSampledRequestToTargetService() {
+        // Given
+        repository.register(createTestInstance("candidate", "http://localhost:9090"));
+        var filter = createFilter(1.0, clientReturning(HttpStatus.OK, 8));
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users?page=2").header("X-Trace", "abc"));
+
+        // When & Then
+        StepVerifier.create(filter.filter(exchange, PRIMARY)).verifyComplete();
+
+        assertEquals(1, mirrored.size());
+        var request = mirrored.get(0);
+        assertEquals("http://localhost:9090/users?page=2", request.url().toString());
+        assertEquals("true", request.headers().getFirst(ShadowTrafficFilter.SHADOW_HEADER));
+        assertEquals("abc", request.headers().getFirst("X-Trace"));
+        assertEquals(1.0, meterRegistry.get("gateway.shadow.comparisons").tag("outcome", "match").counter().count());
+    }
+
+    @Test
+    void shouldRecordStatusMismatch() {
+        // Given
+        repository.register(createTestInstance("candidate", "http://localhost:9090"));
+        var filter = createFilter(1.0, clientReturning(HttpStatus.INTERNAL_SERVER_ERROR, 8));
+
+        // When
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/users")), PRIMARY).block();
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("gateway.shadow.comparisons").tag("outcome", "mismatch").counter().count());
+    }
+
+    @Test
+    void shouldNotMirrorWhenNotSampled() {
+        // Given
+        repository.register(createTestInstance("candidate", "http://localhost:9090"));
+        var filter = createFilter(0.0, clientReturning(HttpStatus.OK, 8));
+
+        // When
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/users")), PRIMARY).block();
+
+        // Then
+        assertTrue(mirrored.isEmpty());
+    }
+
+    @Test
+    void shouldNotMirrorWarmupRequests() {
+        // Given
+        repository.register(createTestInstance("candidate", "http://localhost:9090"));
+        var filter = createFilter(1.0, clientReturning(HttpStatus.OK, 8));
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/")
+                .header(GatewayWarmup.WARMUP_HEADER, "true")
+                .remoteAddress(new InetSocketAddress("127.0.0.1", 50000)));
+
+        // When
+        filter.filter(exchange, PRIMARY).block();
+
+        // Then
+        assertTrue(mirrored.isEmpty());
+    }
+
+    @Test
+    void shouldOnlyMirrorSafeMethodsByDefault() {
+        // Given
+        repository.register(createTestInstance("candidate", "http://localhost:9090"));
+        var filter = createFilter(1.0, clientReturning(HttpStatus.OK, 8));
+
+        // When: bodiless writes must not be replayed against a candidate that may share a datastore
+        for (HttpMethod method : List.of(HttpMethod.DELETE, HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH)) {
+            filter.filter(MockServerWebExchange.from(MockServerHttpRequest.method(method, "/users/1")), PRIMARY).block();
+        }
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.head("/users/1")), PRIMARY).block();
+
+        // Then
+        assertEquals(1, mirrored.size());
+        assertEquals(HttpMethod.HEAD, mirrored.get(0).method());
+        assertEquals(4.0, meterRegistry.get("gateway.shadow.dropped").tag("reason", "method").counter().count());
+    }
+
+    @Test
+    void shouldMirrorConfiguredMethods() {
+        // Given
+        repository.register(createTestInstance("candidate", "http://localhost:9090"));
+        var filter = createFilter(1.0, Set.of(HttpMethod.GET, HttpMethod.DELETE), clientReturning(HttpStatus.OK, 8));
+
+        // When
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.delete("/users/1")), PRIMARY).block();
+
+        // Then
+        assertEquals(1, mirrored.size());
+        assertEquals(HttpMethod.DELETE, mirrored.get(0).method());
+    }
+
+    @Test
+    void shouldDropRequestsWithBody() {
+        // Given
+        repository.register(createTestInstance("candidate", "http://localhost:9090"));
+        var filter = createFilter(1.0, Set.of(HttpMethod.GET, HttpMethod.POST), clientReturning(HttpStatus.OK, 8));
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/users").contentLength(2).body("{}"));
+
+        // When
+        filter.filter(exchange, PRIMARY).block();
+
+        // Then
+        assertTrue(mirrored.isEmpty());
+        assertEquals(1.0, meterRegistry.get("gateway.shadow.dropped").tag("reason", "request-body").counter().count());
+    }
+
+    @Test
+    void shouldDropInsteadOfQueueingWhenSaturated() {
+        // Given: the shadow target never answers and only one mirror may be in flight
+        repository.register(createTestInstance("candidate", "http://localhost:9090"));
+        var webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    mirrored.add(request);
+                    return Mono.never();
+                })
+                .build();
+        var filter = createFilter(1.0, new ShadowClient(webClient, 1, Duration.ofMinutes(1)));
+
+        // When
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/a")), PRIMARY).block();
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/b")), PRIMARY).block();
+
+        // Then
+        assertEquals(1, mirrored.size());
+        assertEquals(1.0, meterRegistry.get("gateway.shadow.dropped").tag("reason", "saturated").counter().count());
+    }
+
+    @Test
+    void shouldSkipWhenTargetHasNoUpInstances() {
+        // Given
+        var filter = createFilter(1.0, clientReturning(HttpStatus.OK, 8));
+
+        // When
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users"));
+        filter.filter(exchange, PRIMARY).block();
+
+        // Then
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.get("gateway.shadow.dropped").tag("reason", "no-instance").counter().count());
+    }
+
+    @Test
+    void shouldContinuePrimaryWhenTargetUrlIsInvalid() {
+        // Given
+        repository.register(createTestInstance("candidate", "http://bad host"));
+        var client = clientReturning(HttpStatus.OK, 8);
+        var filter = createFilter(1.0, client);
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/users"));
+
+        // When & Then
+        StepVerifier.create(filter.filter(exchange, PRIMARY)).verifyComplete();
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertTrue(mirrored.isEmpty());
+        assertEquals(8, client.availablePermits());
+        assertEquals(1.0, meterRegistry.get("gateway.shadow.dropped").tag("reason", "invalid-target").counter().count());
+    }
+
+    @Test
+    void shouldReuseFilterAcrossRouteRebuilds() {
+        // Given
+        var properties = new ShadowProperties(Map.of("primary", new ShadowProperties.Route("candidate", 1.0, null)),
+            32, 1, Duration.ofSeconds(1));
+        var factory = new ShadowTrafficFilterFactory(properties, repository, clientReturning(HttpStatus.OK, 8), meterRegistry);
+
+        // When
+        var first = factory.forService("primary");
+        var second = factory.forService("primary");
+
+        // Then
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertTrue(factory.forService("other").isEmpty());
+    }
+
+    private ShadowTrafficFilter createFilter(double sampleRate, ShadowClient client) {
+        return createFilter(sampleRate, ShadowProperties.Route.SAFE_METHODS, client);
+    }
+
+    private ShadowTrafficFilter createFilter(double sampleRate, Set<HttpMethod> methods, ShadowClient client) {
+        return new ShadowTrafficFilter("candidate", sampleRate, methods, repository, client,
+            new ShadowMetrics(meterRegistry, "primary-route", "candidate"));
+    }
+
+    private ShadowClient clientReturning(HttpStatus status, int maxInFlight) {
+        var webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    mirrored.add(request);
+                    return Mono.just(ClientResponse.create(status).build());
+                })
+                .build();
+        return new ShadowClient(webClient, maxInFlight, Duration.ofSeconds(1));
+    }
+
+    private ServiceInstance createTestInstance(String serviceName, String baseUrl) {
+        return new ServiceInstance(
+            serviceName,
+            "instance-1",
+            baseUrl,
+            ServiceStatus.UP,
+            FIXED_TIME
+        );
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.apigateway.startup;
+
+import com.example.apigateway.config.WarmupProperties;
+import com.example.apigateway.repository.InMemoryServiceRegistryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GatewayWarmupTest {
+
+    @Mock
+    private InMemoryServiceRegistryRepository repository;
+
+    @Mock
+    private ReactiveLoadBalancer.Factory<org.springframework.cloud.client.ServiceInstance> loadBalancerFactory;
+
+    @Mock
+    private ReactiveLoadBalancer<org.springframework.cloud.client.ServiceInstance> loadBalancer;
+
+    @Mock
+    private RouteLocator routeLocator;
+
+    @Mock
+    private WebClient.Builder webClientBuilder;
+
+    @Mock
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void shouldWarmLoadBalancerOncePerService() {
+        // Given
+        when(repository.getServiceNames()).thenReturn(List.of("service-b", "service-a"));
+        when(context.getApplicationStartup()).thenReturn(ApplicationStartup.DEFAULT);
+        when(routeLocator.getRoutes()).thenReturn(Flux.empty());
+        when(loadBalancerFactory.getInstance(anyString())).thenReturn(loadBalancer);
+        when(loadBalancer.choose()).thenReturn(Mono.<Response<org.springframework.cloud.client.ServiceInstance>>just(new EmptyResponse()));
+
+        // When
+        createWarmup(true).run(null);
+
+        // Then
+        verify(routeLocator).getRoutes();
+        verify(loadBalancerFactory).getInstance("service-a");
+        verify(loadBalancerFactory).getInstance("service-b");
+        verify(loadBalancer, times(2)).choose();
+    }
+
+    @Test
+    void shouldContinueWhenRouteWarmupFails() {
+        // Given
+        when(repository.getServiceNames()).thenReturn(List.of("service-a"));
+        when(context.getApplicationStartup()).thenReturn(ApplicationStartup.DEFAULT);
+        when(routeLocator.getRoutes()).thenReturn(Flux.error(new IllegalStateException("boom")));
+        when(loadBalancerFactory.getInstance("service-a")).thenReturn(loadBalancer);
+        when(loadBalancer.choose()).thenReturn(Mono.<Response<org.springframework.cloud.client.ServiceInstance>>just(new EmptyResponse()));
+
+        // When
+        createWarmup(true).run(null);
+
+        // Then
+        verify(loadBalancer).choose();
+    }
+
+    @Test
+    void shouldSkipEverythingWhenDisabled() {
+        // When
+        createWarmup(false).run(null);
+
+        // Then
+        verifyNoInteractions(repository, loadBalancerFactory, routeLocator, webClientBuilder);
+    }
+
+    @Test
+    void shouldWarmServicesRegisteredAfterStartupOnce() {
+        // Given
+        when(repository.getServiceNames()).thenReturn(List.of("service-c"));
+        when(loadBalancerFactory.getInstance("service-c")).thenReturn(loadBalancer);
+        when(loadBalancer.choose()).thenReturn(Mono.<Response<org.springframework.cloud.client.ServiceInstance>>just(new EmptyResponse()));
+        var warmup = createWarmup(true);
+
+        // When
+        warmup.onApplicationEvent(new HeartbeatEvent(repository, 1L));
+        warmup.onApplicationEvent(new HeartbeatEvent(repository, 2L));
+
+        // Then
+        verify(loadBalancer, timeout(1_000)).choose();
+        verify(loadBalancerFactory, after(100).times(1)).getInstance("service-c");
+    }
+
+    @Test
+    void shouldIgnoreHeartbeatsWhenDisabled() {
+        // When
+        createWarmup(false).onApplicationEvent(new HeartbeatEvent(repository, 1L));
+
+        // Then
+        verifyNoInteractions(repository, loadBalancerFactory);
+    }
+
+    @Test
+    void shouldOnlyTrustWarmupHeaderFromLoopback() {
+        var local = MockServerHttpRequest.get("/gateway/service-a/")
+                .header(GatewayWarmup.WARMUP_HEADER, "true")
+                .remoteAddress(new InetSocketAddress("127.0.0.1", 50000))
+                .build();
+        var remote = MockServerHttpRequest.get("/gateway/service-a/")
+                .header(GatewayWarmup.WARMUP_HEADER, "true")
+                .remoteAddress(new InetSocketAddress("203.0.113.7", 50000))
+                .build();
+        var plain = MockServerHttpRequest.get("/gateway/service-a/")
+                .remoteAddress(new InetSocketAddress("127.0.0.1", 50000))
+                .build();
+
+        assertTrue(GatewayWarmup.isWarmupRequest(local));
+        assertFalse(GatewayWarmup.isWarmupRequest(remote));
+        assertFalse(GatewayWarmup.isWarmupRequest(plain));
+    }
+
+    private GatewayWarmup createWarmup(boolean enabled) {
+        var properties = new WarmupProperties(enabled, 1, "/", Duration.ofSeconds(1));
+        return new GatewayWarmup(repository, loadBalancerFactory, routeLocator, webClientBuilder, context, properties);
+    }
+}